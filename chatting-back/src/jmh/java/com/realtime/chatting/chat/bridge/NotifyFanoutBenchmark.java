@@ -0,0 +1,98 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chatting.chat.dto.ChatNotify;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * chat-notify 팬아웃: 수신자마다 ChatNotify 생성 + convertAndSend(매번 직렬화) vs 한 번 직렬화한 바이트 공유.
+ * 브로커 채널은 아무것도 하지 않으므로 측정값은 템플릿/직렬화 비용만이다.
+ * 결과는 메시지 1건(수신자 전원) 기준 — ns/op 와 gc.alloc.rate.norm(B/op) 을 비교한다.
+ *
+ *   ./gradlew jmh
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class NotifyFanoutBenchmark {
+
+    @Param({"10", "300", "3000"})
+    int recipients;
+
+    private SimpMessagingTemplate template;
+    private ObjectMapper objectMapper;
+    private List<UUID> userIds;
+    private String content;
+    private long sent;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+
+        // 애플리케이션의 STOMP 기본 변환기 체인과 같은 구성
+        MappingJackson2MessageConverter jackson = new MappingJackson2MessageConverter();
+        jackson.setObjectMapper(objectMapper);
+        template = new SimpMessagingTemplate((message, timeout) -> {
+            sent++;
+            return true;
+        });
+        template.setMessageConverter(new CompositeMessageConverter(List.of(
+                new StringMessageConverter(), new ByteArrayMessageConverter(), jackson)));
+
+        userIds = new ArrayList<>(recipients);
+        for (int i = 0; i < recipients; i++) userIds.add(UUID.randomUUID());
+        content = "점심 뭐 먹을지 정해졌나요? 12시 반에 로비에서 만나요. ".repeat(3);
+    }
+
+    /** 기존 ChatEventBridge 루프 */
+    @Benchmark
+    public long perRecipient() {
+        long now = System.currentTimeMillis();
+        for (UUID uid : userIds) {
+            ChatNotify n = notify(now);
+            template.convertAndSend(ChatDelivery.NOTIFY_TOPIC + uid, n);
+        }
+        return sent;
+    }
+
+    /** ChatDelivery.deliverNotifyAll */
+    @Benchmark
+    public long serializeOnce() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(notify(System.currentTimeMillis()));
+        Message<byte[]> frame = MessageBuilder.withPayload(body)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+        for (UUID uid : userIds) {
+            template.send(ChatDelivery.NOTIFY_TOPIC + uid, frame);
+        }
+        return sent;
+    }
+
+    private ChatNotify notify(long now) {
+        return ChatNotify.builder()
+                .type("MESSAGE")
+                .roomId("8f1c2a7e-3b5d-4c9a-a1e2-7d6f5b4c3a21")
+                .senderUserId("0b6e5a4d-9c8f-4e7a-b3c2-1d0e9f8a7b6c")
+                .sender("0b6e5a4d-9c8f-4e7a-b3c2-1d0e9f8a7b6c")
+                .username("김민수")
+                .content(content)
+                .preview(content.substring(0, 79) + "…")
+                .createdAt(now)
+                .seq(123456L)
+                .build();
+    }
+}
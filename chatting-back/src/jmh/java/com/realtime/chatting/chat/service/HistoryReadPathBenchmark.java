@@ -0,0 +1,164 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessagePage;
+import com.realtime.chatting.chat.repository.ChatMessageRepository;
+import com.realtime.chatting.storage.repository.ChatAttachmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * history 읽기 경로 비교: jdbc(MessageHistoryReader, 엔티티 없이 DTO 조립) vs jpa(프로젝션 + 첨부 IN 조회 + toDtos).
+ * 두 경로 모두 MessageService.page(커서, older/newer) 를 읽기 전용 트랜잭션으로 호출한다.
+ * H2(MySQL 모드) 인메모리 데이터셋이라 디스크/네트워크 비용은 빠지고 쿼리 실행 + 매핑/할당 비용이 남는다.
+ * 결과는 페이지 1회 기준 — ns/op 와 gc.alloc.rate.norm(B/op) 을 비교한다.
+ *
+ *   ./gradlew jmh   (build.gradle 의 jmh 블록에서 -prof gc 적용)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class HistoryReadPathBenchmark {
+
+    private static final int MESSAGES = 10_000;
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"20", "100"})
+    int limit;
+
+    private ConfigurableApplicationContext ctx;
+    private TransactionTemplate readOnly;
+    private MessageService jdbcPath;
+    private MessageService jpaPath;
+    private final String roomId = UUID.randomUUID().toString();
+    private String cursor;
+
+    @Setup
+    public void setup() {
+        ctx = new SpringApplicationBuilder(Db.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:history-bench;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false");
+
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+        load(jdbc);
+
+        readOnly = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        jdbcPath = service(jdbc, "jdbc");
+        jpaPath = service(jdbc, "jpa");
+
+        // 방 중간쯤의 메시지를 기준으로 양방향 페이지
+        long pivot = 1_000L + MESSAGES / 2;
+        cursor = new MessageCursor(T0.plusMillis(pivot), pivot).encode();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public MessagePage jdbcOlder() {
+        return readOnly.execute(s -> jdbcPath.page(roomId, limit, cursor, "older"));
+    }
+
+    @Benchmark
+    public MessagePage jpaOlder() {
+        return readOnly.execute(s -> jpaPath.page(roomId, limit, cursor, "older"));
+    }
+
+    @Benchmark
+    public MessagePage jdbcNewer() {
+        return readOnly.execute(s -> jdbcPath.page(roomId, limit, cursor, "newer"));
+    }
+
+    @Benchmark
+    public MessagePage jpaNewer() {
+        return readOnly.execute(s -> jpaPath.page(roomId, limit, cursor, "newer"));
+    }
+
+    /** 커서 페이지에 필요한 의존성만 채운 MessageService (캐시/writer 등은 이 경로에서 쓰지 않음) */
+    private MessageService service(JdbcTemplate jdbc, String readPath) {
+        MessageService service = new MessageService(
+                ctx.getBean(ChatMessageRepository.class), null,
+                ctx.getBean(ChatAttachmentRepository.class), null, null, null, null, null,
+                new MessageHistoryReader(jdbc), new SimpleMeterRegistry());
+        Field f = ReflectionUtils.findField(MessageService.class, "readPath");
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, service, readPath);
+        return service;
+    }
+
+    /** 대상 방 메시지 + 다른 방 메시지(같은 수), 4건 중 1건은 첨부 1개, 10건 중 1건은 2개 */
+    private void load(JdbcTemplate jdbc) {
+        String otherRoom = UUID.randomUUID().toString();
+        List<Object[]> messages = new ArrayList<>(MESSAGES * 2);
+        List<Object[]> attachments = new ArrayList<>();
+        for (int n = 1; n <= MESSAGES; n++) {
+            long id = 1_000L + n;
+            String messageId = UUID.randomUUID().toString();
+            Timestamp at = Timestamp.from(T0.plusMillis(id));
+            messages.add(new Object[]{id, messageId, roomId, UUID.randomUUID().toString(), "user-" + (n % 50),
+                    "메시지 본문 " + n + " — 점심 뭐 먹을지 정해졌나요?", at, (long) n});
+            messages.add(new Object[]{id + MESSAGES * 10L, UUID.randomUUID().toString(), otherRoom, "x", "x",
+                    "other " + n, at, (long) n});
+            int count = n % 10 == 0 ? 2 : n % 4 == 0 ? 1 : 0;
+            for (int k = 0; k < count; k++) {
+                String name = "file-" + n + "-" + k + ".png";
+                attachments.add(new Object[]{messageId, "chat/" + name, "https://files.test/chat/" + name, name,
+                        "image/png", 12_345L, 640, 480, at});
+            }
+        }
+        insert(jdbc, "INSERT INTO chat_messages (id, message_id, room_id, sender, username, content, created_at, seq)"
+                + " VALUES (?,?,?,?,?,?,?,?)", messages);
+        insert(jdbc, "INSERT INTO chat_attachment (message_id, storage_key, public_url, original_name, content_type,"
+                + " size, width, height, created_at) VALUES (?,?,?,?,?,?,?,?,?)", attachments);
+    }
+
+    /** writer 와 같이 시각은 UTC 로 기록 (읽기 경로가 UTC 로 읽는다) */
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        jdbc.batchUpdate(sql, rows, 1_000, (ps, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] instanceof Timestamp ts) ps.setTimestamp(i + 1, ts, utc);
+                else ps.setObject(i + 1, row[i]);
+            }
+        });
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = {
+            RabbitAutoConfiguration.class, RedisAutoConfiguration.class, RedisRepositoriesAutoConfiguration.class})
+    @EntityScan(basePackages = "com.realtime.chatting")
+    @EnableJpaRepositories(basePackageClasses = {ChatMessageRepository.class, ChatAttachmentRepository.class})
+    static class Db {}
+}
@@ -0,0 +1,79 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.config.ChatRouting;
+import com.realtime.chatting.config.RabbitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 브리지 파티션 큐마다 단일 컨슈머 컨테이너를 등록한다.
+ * 파티션 수가 설정값이라 @RabbitListener 대신 코드로 엔드포인트를 만든다.
+ */
+@Component
+@Slf4j
+public class ChatBridgeListeners implements RabbitListenerConfigurer {
+
+    private final ChatEventBridge bridge;
+    private final ChatRouting routing;
+    private final ObjectMapper objectMapper;
+    private final ChatDelivery delivery;
+    private final SimpleRabbitListenerContainerFactory factory;
+
+    public ChatBridgeListeners(ChatEventBridge bridge,
+                               ChatRouting routing,
+                               ChatDelivery delivery,
+                               ObjectMapper objectMapper,
+                               @Qualifier(RabbitConfig.BRIDGE_LISTENER_FACTORY) SimpleRabbitListenerContainerFactory factory) {
+        this.bridge = bridge;
+        this.routing = routing;
+        this.objectMapper = objectMapper;
+        this.delivery = delivery;
+        this.factory = factory;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int k = 0; k < routing.partitions(); k++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("chat-bridge-" + k);
+            endpoint.setQueueNames(ChatRouting.queueName(k));
+            endpoint.setMessageListener(m -> {
+                String rk = m.getMessageProperties().getReceivedRoutingKey();
+                if (delivery.isPassthrough()) {
+                    bridge.onRaw(m.getBody(), head(m.getBody()), rk);
+                    return;
+                }
+                bridge.onMessage(read(m.getBody()), rk);
+            });
+            registrar.registerEndpoint(endpoint, factory);
+        }
+        log.info("chat bridge: {} partition consumer(s) registered", routing.partitions());
+    }
+
+    /** passthrough: 팬아웃에 필요한 필드만 스트리밍으로 읽는다 (MessageDto/첨부 목록 생성 없음) */
+    private MessageHead head(byte[] body) {
+        try {
+            return MessageHead.parse(objectMapper.getFactory(), body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("bridge payload parse failed", e);
+        }
+    }
+
+    private MessageDto read(byte[] body) {
+        try {
+            return objectMapper.readValue(body, MessageDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("bridge payload parse failed", e);
+        }
+    }
+}
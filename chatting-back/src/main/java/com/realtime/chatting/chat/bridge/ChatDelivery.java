@@ -0,0 +1,355 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import com.realtime.chatting.chat.dto.ChatNotify;
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.config.ChatRouting;
+import com.realtime.chatting.config.RabbitConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * WebSocket 최종 전달 담당.
+ * - local(기본): 브리지 컨슈머가 자기 노드의 SimpleBroker 로 바로 전달 (단일 인스턴스용)
+ * - broadcast: 노드마다 전용 큐(chat.node.{uuid}, 미사용 시 x-expires 로 삭제)를 두고,
+ *   로컬 세션이 구독 중인 방/알림 키만 바인딩한다. 공유 파티션 컨슈머는 DB 부수효과(미읽음 등)를
+ *   한 번만 수행하고 사용자 알림은 chat.notify.user.{uid}, 대형 방 알림은 chat.notify.room.{roomId} 로 재발행한다.
+ * 바인딩은 (세션, 구독ID) 단위 참조 카운트로 관리하며 0↔1 전이 때만 브로커에 반영한다.
+ * 브로커 재시작이나 x-expires 보다 긴 단절로 큐가 사라질 수 있으므로, 연결이 (재)생성될 때마다
+ * 큐를 다시 선언하고 현재 참조 중인 바인딩 전부를 다시 건다.
+ */
+@Component
+@Slf4j
+public class ChatDelivery {
+
+    public static final String ROOM_TOPIC = "/topic/rooms/";
+    public static final String NOTIFY_TOPIC = "/topic/chat-notify/";
+    // 대형 방: 사용자별 알림 대신 방 단위 알림 토픽 (/topic/rooms/{roomId}/notify)
+    public static final String ROOM_NOTIFY_SUFFIX = "/notify";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final ConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+
+    private final boolean broadcast;
+    private final boolean passthrough;
+    private final long queueExpiresMs;
+    private final String queueName = "chat.node." + UUID.randomUUID();
+
+    // 바인딩 키 → 로컬 구독 수, 세션 → (구독ID → 바인딩 키)  (this 로 동기화)
+    private final Map<String, Integer> bindingRefs = new HashMap<>();
+    private final Map<String, Map<String, String>> sessionSubs = new HashMap<>();
+
+    // 바인딩 추가/삭제는 순서가 뒤바뀌지 않도록 단일 스레드에서 처리
+    private final ExecutorService bindingWorker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "chat-node-binding");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SimpleMessageListenerContainer container;
+
+    public ChatDelivery(SimpMessagingTemplate messagingTemplate,
+                        RabbitTemplate rabbitTemplate,
+                        AmqpAdmin amqpAdmin,
+                        ConnectionFactory connectionFactory,
+                        ObjectMapper objectMapper,
+                        @Value("${chat.bridge.delivery:local}") String mode,
+                        @Value("${chat.bridge.payload:passthrough}") String payload,
+                        @Value("${chat.bridge.node-queue-expires-ms:60000}") long queueExpiresMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.broadcast = "broadcast".equalsIgnoreCase(mode);
+        this.passthrough = "passthrough".equalsIgnoreCase(payload);
+        this.queueExpiresMs = queueExpiresMs;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!broadcast) return;
+        // 연결이 잠깐 끊겨도 바인딩이 유지되도록 auto-delete 대신 x-expires 사용
+        amqpAdmin.declareQueue(QueueBuilder.nonDurable(queueName).expires((int) queueExpiresMs).build());
+        // 재연결 시 큐/바인딩 복구 (이미 열린 연결이 있으면 바로 한 번 호출된다)
+        connectionFactory.addConnectionListener(this::redeclare);
+
+        container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(queueName);
+        container.setConcurrentConsumers(1);
+        // 재연결 직후 큐가 아직 없더라도 컨테이너가 멈추지 않고 재시도
+        container.setMissingQueuesFatal(false);
+        container.setMessageListener(this::onNodeMessage);
+        container.start();
+        log.info("chat delivery: broadcast mode, node queue={}", queueName);
+    }
+
+    @PreDestroy
+    void stop() {
+        bindingWorker.shutdown();
+        if (container == null) return;
+        container.stop();
+        try {
+            amqpAdmin.deleteQueue(queueName);
+        } catch (Exception e) {
+            log.debug("node queue delete failed: {}", e.toString());
+        }
+    }
+
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    /** 방 메시지 AMQP 본문을 역직렬화/재직렬화 없이 STOMP 프레임 본문으로 넘기는지 */
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    /** 방 타임라인 전달: broadcast 모드에선 노드 큐 컨슈머가 하므로 아무것도 하지 않는다 */
+    public void deliverRoom(String roomId, MessageDto message) {
+        if (broadcast) return;
+        messagingTemplate.convertAndSend(ROOM_TOPIC + roomId, message);
+    }
+
+    /** 방 타임라인 전달 (passthrough): 이미 MessageDto JSON 인 본문을 그대로 */
+    public void deliverRoomRaw(String roomId, byte[] body) {
+        if (broadcast) return;
+        messagingTemplate.send(ROOM_TOPIC + roomId, jsonFrame(body));
+    }
+
+    /** 사용자 알림 전달: broadcast 모드면 해당 사용자를 구독 중인 노드들로 재발행 */
+    public void deliverNotify(UUID userId, ChatNotify notify) {
+        deliverNotifyAll(List.of(userId), notify);
+    }
+
+    /**
+     * 같은 알림을 여러 사용자에게 전달.
+     * JSON 직렬화는 한 번만 하고, 그 바이트 배열을 모든 목적지(STOMP 프레임 본문 / AMQP 본문)가 공유한다.
+     */
+    public void deliverNotifyAll(Collection<UUID> userIds, ChatNotify notify) {
+        if (userIds.isEmpty()) return;
+        byte[] body = serialize(notify);
+        if (body == null) return;
+
+        if (broadcast) {
+            Message amqp = jsonAmqp(body);
+            for (UUID uid : userIds) {
+                rabbitTemplate.send(RabbitConfig.CHAT_EXCHANGE, RabbitConfig.NOTIFY_ROUTING_PREFIX + uid, amqp);
+            }
+            return;
+        }
+        org.springframework.messaging.Message<byte[]> frame = jsonFrame(body);
+        for (UUID uid : userIds) {
+            messagingTemplate.send(NOTIFY_TOPIC + uid, frame);
+        }
+    }
+
+    /** 대형 방 알림: 방 멤버 전원이 구독하는 /topic/rooms/{roomId}/notify 로 한 건 */
+    public void deliverRoomNotify(String roomId, ChatNotify notify) {
+        byte[] body = serialize(notify);
+        if (body == null) return;
+        if (broadcast) {
+            rabbitTemplate.send(RabbitConfig.CHAT_EXCHANGE, RabbitConfig.ROOM_NOTIFY_ROUTING_PREFIX + roomId, jsonAmqp(body));
+            return;
+        }
+        messagingTemplate.send(ROOM_TOPIC + roomId + ROOM_NOTIFY_SUFFIX, jsonFrame(body));
+    }
+
+    private byte[] serialize(ChatNotify notify) {
+        try {
+            return objectMapper.writeValueAsBytes(notify);
+        } catch (JsonProcessingException e) {
+            log.warn("notify dropped: serialize failed room={} err={}", notify.getRoomId(), e.toString());
+            return null;
+        }
+    }
+
+    private static Message jsonAmqp(byte[] body) {
+        MessageProperties props = new MessageProperties();
+        props.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        return new Message(body, props);
+    }
+
+    /** 이미 직렬화된 JSON 을 그대로 싣는 메시지 (send 시 목적지 헤더만 붙여 복사되고 payload 는 공유) */
+    private static org.springframework.messaging.Message<byte[]> jsonFrame(byte[] body) {
+        return MessageBuilder.withPayload(body)
+                .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                .build();
+    }
+
+    // ===== 노드 큐 소비 =====
+
+    private void onNodeMessage(Message m) {
+        String rk = m.getMessageProperties().getReceivedRoutingKey();
+        try {
+            if (rk != null && rk.startsWith(RabbitConfig.NOTIFY_ROUTING_PREFIX)) {
+                String uid = rk.substring(RabbitConfig.NOTIFY_ROUTING_PREFIX.length());
+                // 발행 측에서 만든 JSON 을 그대로 전달 (역직렬화/재직렬화 없음)
+                messagingTemplate.send(NOTIFY_TOPIC + uid, jsonFrame(m.getBody()));
+                return;
+            }
+            if (rk != null && rk.startsWith(RabbitConfig.ROOM_NOTIFY_ROUTING_PREFIX)) {
+                String roomId = rk.substring(RabbitConfig.ROOM_NOTIFY_ROUTING_PREFIX.length());
+                messagingTemplate.send(ROOM_TOPIC + roomId + ROOM_NOTIFY_SUFFIX, jsonFrame(m.getBody()));
+                return;
+            }
+            String roomId = ChatRouting.roomIdOf(rk);
+            if (roomId == null) {
+                log.warn("node delivery dropped: unexpected rk={}", rk);
+                return;
+            }
+            if (passthrough) {
+                messagingTemplate.send(ROOM_TOPIC + roomId, jsonFrame(m.getBody()));
+                return;
+            }
+            messagingTemplate.convertAndSend(ROOM_TOPIC + roomId, objectMapper.readValue(m.getBody(), MessageDto.class));
+        } catch (IOException e) {
+            log.warn("node delivery dropped: unreadable payload rk={} err={}", rk, e.toString());
+        }
+    }
+
+    // ===== 구독 추적 → 바인딩 =====
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        if (!broadcast) return;
+        StompHeaderAccessor acc = StompHeaderAccessor.wrap(event.getMessage());
+        String key = bindingKeyOf(acc.getDestination());
+        if (key == null || acc.getSessionId() == null || acc.getSubscriptionId() == null) return;
+
+        synchronized (this) {
+            String prev = sessionSubs.computeIfAbsent(acc.getSessionId(), s -> new HashMap<>())
+                    .put(acc.getSubscriptionId(), key);
+            retain(key);
+            if (prev != null) release(prev);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        if (!broadcast) return;
+        StompHeaderAccessor acc = StompHeaderAccessor.wrap(event.getMessage());
+        synchronized (this) {
+            Map<String, String> subs = sessionSubs.get(acc.getSessionId());
+            if (subs == null) return;
+            String key = subs.remove(acc.getSubscriptionId());
+            if (subs.isEmpty()) sessionSubs.remove(acc.getSessionId());
+            if (key != null) release(key);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        if (!broadcast) return;
+        synchronized (this) {
+            Map<String, String> subs = sessionSubs.remove(event.getSessionId());
+            if (subs != null) subs.values().forEach(this::release);
+        }
+    }
+
+    private void retain(String key) {
+        if (bindingRefs.merge(key, 1, Integer::sum) == 1) {
+            bindingWorker.execute(() -> changeBinding(key, true));
+        }
+    }
+
+    private void release(String key) {
+        Integer n = bindingRefs.get(key);
+        if (n == null) return;
+        if (n > 1) {
+            bindingRefs.put(key, n - 1);
+            return;
+        }
+        bindingRefs.remove(key);
+        bindingWorker.execute(() -> changeBinding(key, false));
+    }
+
+    private void changeBinding(String key, boolean add) {
+        Binding b = new Binding(queueName, Binding.DestinationType.QUEUE, RabbitConfig.CHAT_EXCHANGE, key, null);
+        try {
+            if (add) amqpAdmin.declareBinding(b);
+            else amqpAdmin.removeBinding(b);
+        } catch (Exception e) {
+            log.warn("node binding {} failed: key={} err={}", add ? "add" : "remove", key, e.toString());
+        }
+    }
+
+    /** 새 연결에서 노드 큐와 참조 중인 바인딩을 다시 선언 (둘 다 멱등) */
+    private void redeclare(Connection connection) {
+        List<String> keys;
+        synchronized (this) {
+            keys = List.copyOf(bindingRefs.keySet());
+        }
+        try (Channel ch = connection.createChannel(false)) {
+            ch.queueDeclare(queueName, false, false, false, Map.<String, Object>of("x-expires", (int) queueExpiresMs));
+            for (String key : keys) {
+                ch.queueBind(queueName, RabbitConfig.CHAT_EXCHANGE, key);
+            }
+            log.info("node queue redeclared: queue={} bindings={}", queueName, keys.size());
+        } catch (Exception e) {
+            log.warn("node queue redeclare failed: queue={} err={}", queueName, e.toString());
+        }
+    }
+
+    /** STOMP 목적지 → 노드 큐 바인딩 키 (대상이 아니거나 토픽 와일드카드가 섞이면 null) */
+    static String bindingKeyOf(String destination) {
+        if (destination == null) return null;
+        if (destination.startsWith(ROOM_TOPIC)) {
+            String roomId = destination.substring(ROOM_TOPIC.length());
+            if (roomId.endsWith(ROOM_NOTIFY_SUFFIX)) {
+                roomId = roomId.substring(0, roomId.length() - ROOM_NOTIFY_SUFFIX.length());
+                return isPlainWord(roomId) ? RabbitConfig.ROOM_NOTIFY_ROUTING_PREFIX + roomId : null;
+            }
+            return isPlainWord(roomId) ? RabbitConfig.ROOM_ROUTING_PREFIX + roomId + ".*" : null;
+        }
+        if (destination.startsWith(NOTIFY_TOPIC)) {
+            String uid = destination.substring(NOTIFY_TOPIC.length());
+            return isPlainWord(uid) ? RabbitConfig.NOTIFY_ROUTING_PREFIX + uid : null;
+        }
+        return null;
+    }
+
+    private static boolean isPlainWord(String s) {
+        if (s.isEmpty()) return false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '.' || c == '*' || c == '#' || c == '/') return false;
+        }
+        return true;
+    }
+}
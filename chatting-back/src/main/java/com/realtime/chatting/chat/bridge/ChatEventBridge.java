@@ -2,19 +2,23 @@ package com.realtime.chatting.chat.bridge;
 
 import com.realtime.chatting.chat.dto.ChatNotify;
 import com.realtime.chatting.chat.dto.MessageDto;
-import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
-import com.realtime.chatting.config.RabbitConfig;
-import com.realtime.chatting.login.repository.UserRepository;
+import com.realtime.chatting.chat.service.InboxService;
+import com.realtime.chatting.chat.service.LargeRoomTier;
+import com.realtime.chatting.chat.service.RoomMembershipCache;
+import com.realtime.chatting.chat.service.UnreadCounterService;
+import com.realtime.chatting.config.ChatRouting;
+import com.realtime.chatting.login.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.amqp.support.AmqpHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
@@ -22,29 +26,63 @@ import java.util.UUID;
 @Slf4j
 public class ChatEventBridge {
 
-    private final SimpMessagingTemplate messagingTemplate;
-    private final ChatRoomMemberRepository memberRepo;
-    private final UserRepository userRepo;
+    private final ChatDelivery delivery;
+    private final RoomMembershipCache membership;
+    private final UnreadCounterService unreadCounter;
+    private final UserProfileCache profiles;
+    private final InboxService inbox;
+    private final NotifyDigester digester;
+    private final RoomViewerRegistry viewers;
+    private final LargeRoomTier largeRooms;
 
+    /**
+     * 파티션 컨슈머(ChatBridgeListeners)에서 호출 — 같은 방은 항상 같은 스레드에서 순서대로 들어온다.
+     * 공유 큐라 클러스터 전체에서 한 번만 실행되므로 DB 부수효과는 여기서 처리하고,
+     * 실제 소켓 전달은 ChatDelivery 가 모드(local/broadcast)에 맞게 한다.
+     * DB 작업은 트랜잭션 안에서 먼저 하고, 되돌릴 수 없는 부수효과(소켓 전달, 버퍼 미읽음, 알림 묶음)는
+     * 커밋 뒤에만 실행한다 — 일시적 DB 오류로 리스너가 재시도해도 프레임/미읽음이 중복되지 않는다.
+     */
     @Transactional
-    @RabbitListener(queues = RabbitConfig.WS_BRIDGE_QUEUE)
-    public void onMessage(
-            MessageDto message,
-            @Header(name = AmqpHeaders.RECEIVED_ROUTING_KEY, required = false) String routingKey
-    ) {
-        String roomId = resolveRoomId(message, routingKey);
+    public void onMessage(MessageDto message, String routingKey) {
+        String roomId = resolveRoomId(message.getRoomId(), routingKey);
         if (roomId == null) return;
 
         // 1) 방 브로드캐스트 (Room 타임라인에 원문 메시지 전파)
-        messagingTemplate.convertAndSend("/topic/rooms/" + roomId, message);
+        fanout(roomId, MessageHead.of(message), () -> delivery.deliverRoom(roomId, message));
+    }
+
+    /**
+     * passthrough 모드: AMQP 본문(MessageDto JSON)을 다시 직렬화하지 않고 방 토픽 프레임에 그대로 싣는다.
+     * 미읽음/인박스/알림에는 스트리밍 파서로 뽑은 head 필드만 쓴다.
+     */
+    @Transactional
+    public void onRaw(byte[] body, MessageHead head, String routingKey) {
+        String roomId = resolveRoomId(head.roomId(), routingKey);
+        if (roomId == null) return;
+
+        fanout(roomId, head, () -> delivery.deliverRoomRaw(roomId, body));
+    }
 
-        // 2) 미읽음 +1 : sender는 UUID 문자열이어야 함
+    private void fanout(String roomId, MessageHead message, Runnable roomFrame) {
+        // 2) 미읽음 +1 : sender는 UUID 문자열이어야 함 (카운터 엔진에 누적 → 주기적으로 일괄 반영)
+        // 방을 보고 있는 사용자는 방 토픽으로 이미 받았으므로 미읽음/알림 모두 건너뜀
+        // 대형 방은 멤버 목록을 돌지 않는다 (미읽음은 커서, 알림은 방 단위 토픽 한 번)
+        boolean large = largeRooms.isLarge(roomId, membership.memberCount(roomId));
+        List<UUID> participantIds = large ? List.of() : membership.members(roomId);
+        Set<UUID> viewing = large ? Set.of() : viewers.viewersOf(roomId);
+        if (!viewing.isEmpty()) {
+            List<UUID> away = new ArrayList<>(participantIds.size());
+            for (UUID uid : participantIds) {
+                if (!viewing.contains(uid)) away.add(uid);
+            }
+            participantIds = away;
+        }
         UUID senderUuid = null;
-        String senderRaw = message.getSender(); // UUID 문자열 기대
+        String senderRaw = message.sender(); // UUID 문자열 기대
         if (senderRaw != null && !senderRaw.isBlank()) {
             try {
                 senderUuid = UUID.fromString(senderRaw);
-                memberRepo.bumpUnread(roomId, senderUuid);
+                if (!large) unreadCounter.increment(roomId, senderUuid, participantIds);
             } catch (IllegalArgumentException ex) {
                 log.warn("ChatEventBridge: sender is not a UUID: {}", senderRaw);
             }
@@ -52,17 +90,17 @@ public class ChatEventBridge {
 
         // 2-1) 표시용 username 결정
         // 우선순위: message.username -> (senderUuid로 유저 조회하여 display/email) -> senderRaw
-        String displayUsername = message.getUsername();
+        String displayUsername = message.username();
         if (displayUsername == null || displayUsername.isBlank()) {
             try {
                 if (senderUuid != null) {
-                    // 예: User 엔티티에 getUsername()/getEmail() 등이 있다고 가정
-                    var userOpt = userRepo.findById(senderUuid);
-                    if (userOpt.isPresent()) {
-                        var u = userOpt.get();
-                        displayUsername = (u.getUsername() != null && !u.getUsername().isBlank())
-                                ? u.getUsername()
-                                : u.getEmail(); // 이메일 폴백
+                    // 프로필 캐시 (username → 이메일 폴백)
+                    var profile = profiles.get(senderUuid);
+                    if (profile.isPresent()) {
+                        var u = profile.get();
+                        displayUsername = (u.username() != null && !u.username().isBlank())
+                                ? u.username()
+                                : u.email(); // 이메일 폴백
                     }
                 }
             } catch (Exception ignore) {}
@@ -72,38 +110,81 @@ public class ChatEventBridge {
         }
 
         // 3) 사용자별 알림 (구독 키 = UUID 문자열)
-        var participantIds = memberRepo.findParticipantIds(roomId);
 
-        String preview = abbreviate(message.getContent(), 80);
+        String preview = abbreviate(message.content(), 80);
         long now = System.currentTimeMillis();
 
+        // 방 목록(인박스) 최근 활동 갱신 — 방별 마지막 값만 모아 주기적으로 반영 (컨슈머 스레드에서 행을 쓰지 않음)
+        Instant at = message.createdAt() != null ? message.createdAt() : Instant.ofEpochMilli(now);
+        inbox.activity(roomId, message.seq(), at, displayUsername, preview);
+
+        // 수신자마다 내용이 같으므로 한 번만 만들고, 직렬화도 ChatDelivery 에서 한 번만
+        ChatNotify notif = ChatNotify.builder()
+                .type("MESSAGE")
+                .roomId(roomId)
+                .senderUserId(senderUuid != null ? senderUuid.toString() : senderRaw)
+                .sender(senderRaw)                 // 백워드 호환
+                .username(displayUsername)         // 표시용 username 포함
+                .content(message.content())     // 필요 시 null로 두고 preview만 사용해도 됨
+                .preview(preview)
+                .createdAt(now)
+                .seq(message.seq())
+                .build();
+
+        if (large) {
+            // 멤버 클라이언트가 구독하는 /topic/rooms/{roomId}/notify 로 한 번 (본인 발신은 클라이언트가 거른다)
+            afterCommit(roomId, () -> {
+                roomFrame.run();
+                delivery.deliverRoomNotify(roomId, notif);
+            });
+            return;
+        }
+
+        List<UUID> recipients = new ArrayList<>(participantIds.size());
         for (UUID uid : participantIds) {
             if (uid == null) continue;
             // 본인에게는 알림 X
             if (senderUuid != null && uid.equals(senderUuid)) continue;
+            recipients.add(uid);
+        }
+
+        // 바쁜 방은 (사용자, 방) 단위로 묶어서 보낸다
+        afterCommit(roomId, () -> {
+            roomFrame.run();
+            if (!recipients.isEmpty()) digester.submit(roomId, recipients, notif);
+        });
+    }
 
-            ChatNotify notif = ChatNotify.builder()
-                    .type("MESSAGE")
-                    .roomId(roomId)
-                    .senderUserId(senderUuid != null ? senderUuid.toString() : senderRaw)
-                    .sender(senderRaw)                 // 백워드 호환
-                    .username(displayUsername)         // 표시용 username 포함
-                    .content(message.getContent())     // 필요 시 null로 두고 preview만 사용해도 됨
-                    .preview(preview)
-                    .createdAt(now)
-                    .build();
-
-            messagingTemplate.convertAndSend("/topic/chat-notify/" + uid, notif);
+    /**
+     * 커밋 뒤 실행 (트랜잭션 밖이면 바로). 여기서 난 예외는 리스너로 올리지 않는다 —
+     * 이미 커밋됐으므로 재시도하면 DB 부수효과만 중복된다.
+     */
+    private static void afterCommit(String roomId, Runnable effects) {
+        Runnable safe = () -> {
+            try {
+                effects.run();
+            } catch (Exception e) {
+                log.warn("ChatEventBridge: delivery after commit failed room={} err={}", roomId, e.toString());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            safe.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                safe.run();
+            }
+        });
     }
 
-    private String resolveRoomId(MessageDto m, String rk) {
-        String roomId = m.getRoomId();
-        if ((roomId == null || roomId.isBlank()) && rk != null && rk.startsWith("chat.message.room.")) {
-            roomId = rk.substring("chat.message.room.".length());
+    private String resolveRoomId(String roomId, String rk) {
+        if (roomId == null || roomId.isBlank()) {
+            roomId = ChatRouting.roomIdOf(rk);
         }
         if (roomId == null || roomId.isBlank()) {
-            log.warn("WS bridge dropped: roomId missing. rk={}, payload={}", rk, m);
+            log.warn("WS bridge dropped: roomId missing. rk={}", rk);
             return null;
         }
         return roomId;
@@ -0,0 +1,70 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.realtime.chatting.chat.dto.MessageDto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 브리지 팬아웃(미읽음/인박스/알림)에 필요한 메시지 필드만 모은 것.
+ * passthrough 모드에선 AMQP 본문(MessageDto JSON)을 스트리밍 파서로 훑어 이 필드만 꺼내고,
+ * 본문 바이트는 그대로 /topic/rooms/{id} 프레임에 싣는다. (id, messageId, attachments 는 건너뜀)
+ */
+public record MessageHead(String roomId, String sender, String username, String content,
+                          Instant createdAt, Long seq) {
+
+    public static MessageHead of(MessageDto m) {
+        return new MessageHead(m.getRoomId(), m.getSender(), m.getUsername(), m.getContent(),
+                m.getCreatedAt(), m.getSeq());
+    }
+
+    public static MessageHead parse(JsonFactory factory, byte[] body) throws IOException {
+        String roomId = null, sender = null, username = null, content = null;
+        Instant createdAt = null;
+        Long seq = null;
+        try (JsonParser p = factory.createParser(body)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("message payload is not a JSON object");
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                String field = p.currentName();
+                JsonToken t = p.nextToken();
+                if (t == JsonToken.VALUE_NULL) continue;
+                switch (field) {
+                    case "roomId" -> roomId = p.getValueAsString();
+                    case "sender" -> sender = p.getValueAsString();
+                    case "username" -> username = p.getValueAsString();
+                    case "content" -> content = p.getValueAsString();
+                    case "createdAt" -> createdAt = instant(p, t);
+                    case "seq" -> seq = p.getValueAsLong();
+                    default -> p.skipChildren(); // 배열/객체(attachments 등)는 통째로 건너뜀
+                }
+            }
+        }
+        return new MessageHead(roomId, sender, username, content, createdAt, seq);
+    }
+
+    /** ISO-8601 문자열(기본) 또는 epoch 초(소수점 이하 나노) 숫자 둘 다 수용 */
+    private static Instant instant(JsonParser p, JsonToken t) throws IOException {
+        if (t == JsonToken.VALUE_STRING) {
+            try {
+                return Instant.parse(p.getText());
+            } catch (DateTimeParseException e) {
+                throw new IOException("bad createdAt: " + p.getText(), e);
+            }
+        }
+        if (t.isNumeric()) {
+            BigDecimal v = p.getDecimalValue();
+            long sec = v.longValue();
+            int nano = v.subtract(BigDecimal.valueOf(sec)).movePointRight(9).intValue();
+            return Instant.ofEpochSecond(sec, nano);
+        }
+        p.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,187 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.realtime.chatting.chat.dto.ChatNotify;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (사용자, 방) 단위 chat-notify 묶음 전달.
+ * - 최근 window 안에 그 방 알림을 받은 적이 없으면 즉시 전달 (조용한 방은 지연 없음)
+ * - window 안에 또 온 알림은 쌓아 두었다가, 마지막 전달로부터 window 가 지나면
+ *   최신 미리보기 + 그동안의 건수(delta) 를 담은 프레임 한 건으로 보낸다
+ * (최신 알림, 건수)가 같은 수신자들은 ChatDelivery.deliverNotifyAll 로 직렬화 1회를 공유한다.
+ * 방 단위 상태는 RoomDigest 로 동기화(브리지 컨슈머 스레드 ↔ flush 스레드).
+ */
+@Component
+@Slf4j
+public class NotifyDigester {
+
+    private final ChatDelivery delivery;
+    private final boolean enabled;
+    private final long windowMs;
+
+    private final Map<String, RoomDigest> rooms = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter immediateFrames;
+    private final Counter digestFrames;
+    private final Counter coalesced;
+
+    public NotifyDigester(ChatDelivery delivery,
+                          MeterRegistry meterRegistry,
+                          @Value("${chat.notify.digest.enabled:true}") boolean enabled,
+                          @Value("${chat.notify.digest.window-ms:2000}") long windowMs) {
+        this.delivery = delivery;
+        this.enabled = enabled;
+        this.windowMs = Math.max(50, windowMs);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-notify-digest");
+            t.setDaemon(true);
+            return t;
+        });
+        if (enabled) {
+            // 보류분은 마감 후 최대 tick 만큼 늦게 나간다
+            long tick = Math.max(10, this.windowMs / 4);
+            scheduler.scheduleWithFixedDelay(this::flushSafe, tick, tick, TimeUnit.MILLISECONDS);
+        }
+
+        this.immediateFrames = Counter.builder("chat.notify.frames").tag("kind", "immediate")
+                .description("사용자에게 보낸 chat-notify 프레임 수").register(meterRegistry);
+        this.digestFrames = Counter.builder("chat.notify.frames").tag("kind", "digest")
+                .description("사용자에게 보낸 chat-notify 프레임 수").register(meterRegistry);
+        this.coalesced = Counter.builder("chat.notify.coalesced")
+                .description("묶음으로 흡수되어 따로 보내지 않은 알림 수").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        if (enabled) flush(Long.MAX_VALUE);
+    }
+
+    /** 한 메시지의 알림(수신자 전원 동일 내용) */
+    public void submit(String roomId, Collection<UUID> recipients, ChatNotify notify) {
+        if (recipients.isEmpty()) return;
+        if (!enabled) {
+            delivery.deliverNotifyAll(recipients, notify);
+            immediateFrames.increment(recipients.size());
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        List<UUID> immediate = new ArrayList<>(recipients.size());
+        while (true) {
+            RoomDigest room = rooms.computeIfAbsent(roomId, k -> new RoomDigest());
+            synchronized (room) {
+                // flush 가 방금 맵에서 뺀 객체면 새로 만든 쪽에 기록
+                if (room.removed) continue;
+                for (UUID uid : recipients) {
+                    UserSlot slot = room.users.get(uid);
+                    if (slot == null) {
+                        room.users.put(uid, new UserSlot(now));
+                        immediate.add(uid);
+                    } else if (slot.pending == 0 && now - slot.lastSentAt >= windowMs) {
+                        slot.lastSentAt = now;
+                        immediate.add(uid);
+                    } else {
+                        slot.pending++;
+                        slot.latest = notify;
+                    }
+                }
+            }
+            break;
+        }
+
+        coalesced.increment(recipients.size() - immediate.size());
+        if (!immediate.isEmpty()) {
+            delivery.deliverNotifyAll(immediate, notify);
+            immediateFrames.increment(immediate.size());
+        }
+    }
+
+    private void flushSafe() {
+        try {
+            flush(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("notify digest flush failed: {}", e.toString());
+        }
+    }
+
+    /** window 가 지난 보류분 전달 + 한동안 조용한 슬롯 정리 */
+    private void flush(long now) {
+        for (Iterator<Map.Entry<String, RoomDigest>> it = rooms.entrySet().iterator(); it.hasNext(); ) {
+            RoomDigest room = it.next().getValue();
+            // (최신 알림, 건수) 별로 묶어 같은 프레임을 공유
+            Map<Due, List<UUID>> due = new HashMap<>();
+            synchronized (room) {
+                for (Iterator<Map.Entry<UUID, UserSlot>> us = room.users.entrySet().iterator(); us.hasNext(); ) {
+                    Map.Entry<UUID, UserSlot> e = us.next();
+                    UserSlot slot = e.getValue();
+                    boolean windowOver = now - slot.lastSentAt >= windowMs;
+                    if (slot.pending > 0 && windowOver) {
+                        due.computeIfAbsent(new Due(slot.latest, slot.pending), d -> new ArrayList<>()).add(e.getKey());
+                        slot.pending = 0;
+                        slot.latest = null;
+                        slot.lastSentAt = now;
+                    } else if (slot.pending == 0 && windowOver) {
+                        us.remove(); // 다음 알림은 어차피 즉시 전달
+                    }
+                }
+                if (room.users.isEmpty()) {
+                    room.removed = true;
+                    it.remove();
+                }
+            }
+
+            for (Map.Entry<Due, List<UUID>> e : due.entrySet()) {
+                delivery.deliverNotifyAll(e.getValue(), withDelta(e.getKey().latest(), e.getKey().count()));
+                digestFrames.increment(e.getValue().size());
+            }
+        }
+    }
+
+    private static ChatNotify withDelta(ChatNotify n, int delta) {
+        return ChatNotify.builder()
+                .type(n.getType())
+                .roomId(n.getRoomId())
+                .senderUserId(n.getSenderUserId())
+                .sender(n.getSender())
+                .username(n.getUsername())
+                .content(n.getContent())
+                .preview(n.getPreview())
+                .createdAt(n.getCreatedAt())
+                .seq(n.getSeq())
+                .delta(delta)
+                .build();
+    }
+
+    private static final class RoomDigest {
+        private final Map<UUID, UserSlot> users = new HashMap<>();
+        private boolean removed;
+    }
+
+    private static final class UserSlot {
+        private long lastSentAt;
+        private int pending;
+        // 보류 중인 것 중 가장 최근 알림 (수신자마다 마지막으로 받을 메시지가 다를 수 있다 — 본인 발신 제외)
+        private ChatNotify latest;
+
+        UserSlot(long lastSentAt) {
+            this.lastSentAt = lastSentAt;
+        }
+    }
+
+    /** ChatNotify 는 equals 를 두지 않으므로 같은 메시지(객체) 기준으로 묶인다 */
+    private record Due(ChatNotify latest, int count) {}
+}
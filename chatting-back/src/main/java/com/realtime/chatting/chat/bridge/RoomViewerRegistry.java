@@ -0,0 +1,102 @@
+package com.realtime.chatting.chat.bridge;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 지금 방을 보고 있는 사용자 목록.
+ * 방 목록 화면도 미리보기용으로 /topic/rooms/{roomId} 를 구독하므로 그것으로는 구분할 수 없다.
+ * 채팅방 화면이 따로 구독하는 표시용 목적지 /topic/rooms/{roomId}/viewing 으로 판단한다(발행되는 메시지 없음).
+ * 이 노드의 STOMP 세션만 안다 — broadcast 모드에서 다른 노드에 붙은 사용자는 "보고 있지 않음"으로
+ * 취급되어 기존처럼 알림/미읽음을 받는다(누락 없이 절약만 덜 됨).
+ * 한 사용자가 탭 여러 개로 같은 방을 볼 수 있어 (방, 사용자) 별 구독 수를 센다.
+ */
+@Component
+public class RoomViewerRegistry {
+
+    public static final String VIEWING_SUFFIX = "/viewing";
+
+    // roomId → (userId → 구독 수)
+    private final Map<String, Map<UUID, Integer>> viewers = new ConcurrentHashMap<>();
+    // sessionId → (subscriptionId → 구독 대상)
+    private final Map<String, Map<String, View>> sessions = new ConcurrentHashMap<>();
+
+    /** 방을 보고 있는 사용자 (스냅샷, 없으면 빈 집합) */
+    public Set<UUID> viewersOf(String roomId) {
+        Map<UUID, Integer> users = viewers.get(roomId);
+        return users == null || users.isEmpty() ? Set.of() : Set.copyOf(users.keySet());
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor acc = StompHeaderAccessor.wrap(event.getMessage());
+        String roomId = roomIdOf(acc.getDestination());
+        UUID userId = userIdOf(acc.getUser());
+        if (roomId == null || userId == null || acc.getSessionId() == null || acc.getSubscriptionId() == null) return;
+
+        View prev = sessions.computeIfAbsent(acc.getSessionId(), s -> new ConcurrentHashMap<>())
+                .put(acc.getSubscriptionId(), new View(roomId, userId));
+        retain(roomId, userId);
+        if (prev != null) release(prev);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor acc = StompHeaderAccessor.wrap(event.getMessage());
+        if (acc.getSessionId() == null || acc.getSubscriptionId() == null) return;
+        Map<String, View> subs = sessions.get(acc.getSessionId());
+        if (subs == null) return;
+        View v = subs.remove(acc.getSubscriptionId());
+        if (subs.isEmpty()) sessions.remove(acc.getSessionId(), subs);
+        if (v != null) release(v);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, View> subs = sessions.remove(event.getSessionId());
+        if (subs != null) subs.values().forEach(this::release);
+    }
+
+    private void retain(String roomId, UUID userId) {
+        viewers.compute(roomId, (k, users) -> {
+            if (users == null) users = new ConcurrentHashMap<>();
+            users.merge(userId, 1, Integer::sum);
+            return users;
+        });
+    }
+
+    private void release(View v) {
+        viewers.computeIfPresent(v.roomId(), (k, users) -> {
+            users.computeIfPresent(v.userId(), (u, n) -> n > 1 ? n - 1 : null);
+            return users.isEmpty() ? null : users;
+        });
+    }
+
+    /** /topic/rooms/{roomId}/viewing → roomId */
+    private static String roomIdOf(String destination) {
+        if (destination == null || !destination.startsWith(ChatDelivery.ROOM_TOPIC)
+                || !destination.endsWith(VIEWING_SUFFIX)) return null;
+        String roomId = destination.substring(ChatDelivery.ROOM_TOPIC.length(),
+                destination.length() - VIEWING_SUFFIX.length());
+        return roomId.isEmpty() || roomId.indexOf('/') >= 0 ? null : roomId;
+    }
+
+    private static UUID userIdOf(Principal user) {
+        if (user == null) return null;
+        try {
+            return UUID.fromString(user.getName());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record View(String roomId, UUID userId) {}
+}
@@ -0,0 +1,86 @@
+package com.realtime.chatting.chat.controller;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.chat.dto.SendMessageRequest;
+import com.realtime.chatting.chat.dto.SendReceipt;
+import com.realtime.chatting.chat.service.ChatSendService;
+import com.realtime.chatting.config.JwtStompInterceptor;
+import com.realtime.chatting.login.dto.UserProfile;
+import com.realtime.chatting.login.service.UserProfileCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * STOMP 메시지 전송: SEND /app/rooms/{roomId}/send
+ * - CONNECT 때 심어둔 Principal(UUID)과 세션 속성(username)을 재사용 → 메시지마다 JWT 파싱/Redis/유저 조회 없음
+ * - 결과는 보낸 세션에만 /user/queue/receipts 로 영수증 전달
+ * - REST(POST /api/rooms/{roomId}/send)는 폴백으로 유지
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class ChatStompController {
+
+    private final ChatSendService chatSendService;
+    private final UserProfileCache profiles;
+
+    @MessageMapping("/rooms/{roomId}/send")
+    @SendToUser(destinations = "/queue/receipts", broadcast = false)
+    public SendReceipt send(@DestinationVariable("roomId") String roomId,
+                            @Payload SendMessageRequest req,
+                            Principal principal,
+                            SimpMessageHeaderAccessor accessor) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "unauthenticated STOMP session");
+        }
+        if (req == null || req.getMessage() == null || req.getMessage().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "message is required");
+        }
+
+        UUID myId = UUID.fromString(principal.getName());
+        String username = resolveUsername(myId, accessor);
+
+        MessageDto saved = chatSendService.send(roomId, myId, username, req.getMessage());
+        return SendReceipt.of(req.getClientMessageId(), saved);
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public Map<String, Object> handleError(Exception e) {
+        // 클라이언트에는 의도한 사유만, 그 밖의 예외(DB 등) 내용은 로그에만 남긴다
+        if (e instanceof ResponseStatusException rse) {
+            log.warn("STOMP send rejected: {}", rse.getMessage());
+            String reason = rse.getReason();
+            return Map.of("status", rse.getStatusCode().value(),
+                    "message", reason == null || reason.isBlank() ? "send failed" : reason);
+        }
+        log.error("STOMP send failed", e);
+        return Map.of("status", HttpStatus.INTERNAL_SERVER_ERROR.value(), "message", "send failed");
+    }
+
+    /** CONNECT 시 토큰 클레임에서 넣어둔 username 사용, 없으면 1회 조회 후 세션에 캐시 */
+    private String resolveUsername(UUID myId, SimpMessageHeaderAccessor accessor) {
+        Map<String, Object> attrs = accessor.getSessionAttributes();
+        Object cached = attrs != null ? attrs.get(JwtStompInterceptor.SESSION_USERNAME) : null;
+        if (cached instanceof String s && !s.isBlank()) return s;
+
+        String username = profiles.get(myId)
+                .map(UserProfile::username)
+                .orElseThrow(() -> new IllegalStateException("me not found"));
+        if (attrs != null) attrs.put(JwtStompInterceptor.SESSION_USERNAME, username);
+        return username;
+    }
+}
@@ -0,0 +1,30 @@
+package com.realtime.chatting.chat.controller;
+
+import com.realtime.chatting.chat.dto.InboxPage;
+import com.realtime.chatting.chat.service.InboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/inbox")
+public class InboxController {
+
+    private final InboxService inboxService;
+
+    /**
+     * 내 방 목록 (최근 활동 순, 키셋 페이지)
+     * GET /api/inbox?limit=30&cursor=...
+     * - 응답 nextCursor 로 다음 페이지, null 이면 끝
+     */
+    @GetMapping
+    public InboxPage inbox(@RequestParam(name = "cursor", required = false) String cursor,
+                           @RequestParam(name = "limit", defaultValue = "30") int limit,
+                           Authentication auth) {
+        UUID me = UUID.fromString(auth.getName());
+        return inboxService.page(me, cursor, limit);
+    }
+}
@@ -6,27 +6,25 @@ import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import com.realtime.chatting.ai.repository.RoomAiMemberRepository;
-import com.realtime.chatting.ai.service.AiChatService;
 import com.realtime.chatting.chat.dto.*;
-import com.realtime.chatting.chat.service.ChatFanoutService;
+import com.realtime.chatting.chat.service.ChatSendService;
+import com.realtime.chatting.chat.service.MessageReadService;
 import com.realtime.chatting.chat.service.MessageService;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.realtime.chatting.chat.service.RoomMembershipCache;
 import com.realtime.chatting.chat.service.RoomService;
 import com.realtime.chatting.friend.service.FriendService;
+import com.realtime.chatting.login.dto.UserProfile;
 import com.realtime.chatting.login.entity.User;
-import com.realtime.chatting.login.repository.UserRepository;
+import com.realtime.chatting.login.service.UserProfileCache;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
-import static com.realtime.chatting.ai.util.MentionUtil.hasAiMention;
-import static com.realtime.chatting.ai.util.MentionUtil.stripOneAiMention;
-
 @RestController
 @RequestMapping("/api/rooms")
 @RequiredArgsConstructor
@@ -34,14 +32,15 @@ public class RoomsController {
 
     private final RoomService roomService;
     private final MessageService messageService;
+    private final MessageReadService messageReadService; // 동일 조회 합치기(single-flight)
     private final FriendService friendService;
-    private final UserRepository userRepository;
+    private final UserProfileCache profiles;
 
-    private final AiChatService aiChatService;
-    private final RoomAiMemberRepository roomAiMemberRepository;
+    // 메시지 전송 공통 흐름(저장/AI/퍼블리시)
+    private final ChatSendService chatSendService;
 
-    // 브로커 퍼블리시를 비동기로 처리하는 서비스
-    private final ChatFanoutService chatFanoutService;
+    // 방 멤버 권한 확인 (메모리 캐시)
+    private final RoomMembershipCache membership;
 
     /** 내 방 목록 (주체: JWT sub = UUID) */
     @GetMapping
@@ -101,54 +100,57 @@ public class RoomsController {
         return roomService.openDmById(myId, other.getId());
     }
 
-    /** 히스토리 조회: 인증 불필수라면 그대로, 필수면 Security에서 보장 */
+    /** 히스토리 조회: 방 멤버만 */
     @GetMapping("/{roomId}/messages")
     public List<MessageDto> history(@PathVariable("roomId") String roomId,
                                     @RequestParam(name = "limit", defaultValue = "50") int limit,
-                                    @RequestParam(name = "before", required = false) Long beforeMillis) {
+                                    @RequestParam(name = "before", required = false) Long beforeMillis,
+                                    Authentication auth) {
+        membership.requireMember(roomId, UUID.fromString(auth.getName()));
         int capped = Math.min(200, Math.max(1, limit));
         Instant before = (beforeMillis != null ? Instant.ofEpochMilli(beforeMillis) : null);
-        return messageService.history(roomId, capped, before);
+        return messageReadService.history(roomId, capped, before);
+    }
+
+    /**
+     * 키셋 페이지 조회 (양방향, 불투명 커서)
+     * GET /api/rooms/{roomId}/messages/page?limit=50&cursor=...&direction=older|newer
+     * - cursor 없이 호출하면 최신 페이지, 응답의 olderCursor/newerCursor 로 이어서 조회
+     */
+    @GetMapping("/{roomId}/messages/page")
+    public MessagePage page(@PathVariable("roomId") String roomId,
+                            @RequestParam(name = "limit", defaultValue = "50") int limit,
+                            @RequestParam(name = "cursor", required = false) String cursor,
+                            @RequestParam(name = "direction", defaultValue = "older") String direction,
+                            Authentication auth) {
+        membership.requireMember(roomId, UUID.fromString(auth.getName()));
+        return messageReadService.page(roomId, limit, cursor, direction);
+    }
+
+    /**
+     * 순번 구간 조회: (fromSeq, toSeq] — seq 누락(gap) 감지 시 해당 구간만 다시 받는다.
+     * GET /api/rooms/{roomId}/messages/range?fromSeq=10&toSeq=15
+     */
+    @GetMapping("/{roomId}/messages/range")
+    public List<MessageDto> range(@PathVariable("roomId") String roomId,
+                                  @RequestParam("fromSeq") long fromSeq,
+                                  @RequestParam(name = "toSeq", required = false) Long toSeq,
+                                  Authentication auth) {
+        membership.requireMember(roomId, UUID.fromString(auth.getName()));
+        return messageService.range(roomId, fromSeq, toSeq);
     }
 
-    /** 메시지 전송: sender는 내 UUID 문자열로 기록(미읽음/알림 키와 일치) */
+    /** 메시지 전송(REST 폴백, 기본 경로는 STOMP /app/rooms/{roomId}/send): sender는 내 UUID 문자열로 기록 */
     @PostMapping("/{roomId}/send")
     public MessageDto send(@PathVariable("roomId") String roomId,
                            @Valid @RequestBody SendMessageRequest req,
                            Authentication auth) {
         UUID myId = UUID.fromString(auth.getName());
-        User me = userRepository.findById(myId)
+        UserProfile me = profiles.get(myId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "me not found"));
 
-        // sender = UUID 문자열 (미읽음 집계/알림 라우팅과 일치)
-        String sender = me.getId().toString();
-        // username = 화면 표기용 이름(닉네임)
-        String username = me.getUsername();
-        String messageId = UUID.randomUUID().toString();
-
-        MessageDto saved = messageService.createUserMessage(
-                roomId,
-                messageId,
-                username,
-                sender,
-                req.getMessage()
-        );
-
-        // @ai 멘션이 있으면 AI 라우팅
-        if (hasAiMention(req.getMessage())) {
-            // 룸에 AI가 없으면 스킵
-            boolean hasAiInRoom = !roomAiMemberRepository.findByIdRoomId(roomId).isEmpty();
-            if (hasAiInRoom) {
-                String cleaned = stripOneAiMention(req.getMessage());
-                // onHumanMessage는 @Async로 선언해두면 요청을 막지 않습니다.
-                aiChatService.onHumanMessage(roomId, cleaned);
-            }
-        }
-
-        // 브로커 퍼블리시는 비동기로(채팅 UX를 블로킹하지 않음)
-        chatFanoutService.publishToBrokerAsync(roomId, saved);
-
-        return saved;
+        // 저장 + AI 라우팅 + 브로커 퍼블리시 (STOMP 전송과 공용)
+        return chatSendService.send(roomId, me.id(), me.username(), req.getMessage());
     }
 
     /**
@@ -179,7 +181,7 @@ public class RoomsController {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "invalid principal");
         }
 
-        return messageService.lastMessagesBulk(myId, roomIds);
+        return messageReadService.lastMessagesBulk(myId, roomIds);
     }
 
     /** 멤버 초대*/
@@ -0,0 +1,40 @@
+package com.realtime.chatting.chat.controller;
+
+import com.realtime.chatting.chat.dto.SyncResponse;
+import com.realtime.chatting.chat.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    /**
+     * 재접속 시 한 번에 증분 동기화
+     * GET /api/sync?since={cursor}
+     * - since 없음/만료 → reset=true (기존 API로 전체 적재 후 응답 cursor 부터 사용)
+     */
+    @GetMapping
+    public SyncResponse sync(@RequestParam(name = "since", required = false) String since,
+                             Authentication auth) {
+        UUID me = UUID.fromString(auth.getName());
+        return syncService.sync(me, parseCursor(since));
+    }
+
+    private static Long parseCursor(String since) {
+        if (since == null || since.isBlank()) return null;
+        try {
+            return Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+}
@@ -11,7 +11,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import com.realtime.chatting.chat.dto.UnreadFriendDto;
-import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.chat.service.UnreadCounterService;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.server.ResponseStatusException;
@@ -21,8 +21,8 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/api/unread")
 public class UnreadQueryController {
 
-    private final ChatRoomMemberRepository memberRepo;
     private final UserRepository userRepository;
+    private final UnreadCounterService unreadCounter;
 
     /**
      * 기본: 방(room) 기준 미읽음 [{ roomId, count }]
@@ -37,12 +37,12 @@ public class UnreadQueryController {
 
         if ("peer".equalsIgnoreCase(by)) {
             // 기존 호환: DM/친구 기준
-            List<UnreadFriendDto> list = memberRepo.findDmUnreadOf(meId);
+            List<UnreadFriendDto> list = unreadCounter.dmUnread(meId);
             return list;
         }
 
         // 기본: 방 기준
-        var rows = memberRepo.findUnreadPerRoom(meId);
+        var rows = unreadCounter.unreadPerRoom(meId);
         return rows.stream()
                 .map(p -> new UnreadRoomDto(p.getRoomId(), p.getCount() == null ? 0L : p.getCount()))
                 .toList();
@@ -28,6 +28,9 @@ public class ChatNotify {
     /** epoch millis */
     private Long createdAt;
 
+    /** 방 내 메시지 순번(MessageDto.seq) */
+    private Long seq;
+
     /** 선택: 안읽음 증분/절대값이 필요한 경우 */
     private Integer delta;
     private Integer unread;
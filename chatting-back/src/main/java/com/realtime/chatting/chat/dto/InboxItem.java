@@ -0,0 +1,19 @@
+package com.realtime.chatting.chat.dto;
+
+import java.time.Instant;
+
+/**
+ * 인박스(방 목록) 한 줄.
+ * @param lastSeq 마지막 메시지 순번(메시지가 없으면 null)
+ * @param unread  내 미읽음 수
+ */
+public record InboxItem(
+        String roomId,
+        String type,
+        String title,
+        Instant lastActivityAt,
+        String lastSender,
+        String preview,
+        Long lastSeq,
+        long unread
+) {}
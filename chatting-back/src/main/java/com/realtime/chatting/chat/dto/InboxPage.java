@@ -0,0 +1,10 @@
+package com.realtime.chatting.chat.dto;
+
+import java.util.List;
+
+/**
+ * GET /api/inbox 응답.
+ * @param items      최근 활동 순
+ * @param nextCursor 다음 페이지 요청의 cursor, 마지막 페이지면 null
+ */
+public record InboxPage(List<InboxItem> items, String nextCursor) {}
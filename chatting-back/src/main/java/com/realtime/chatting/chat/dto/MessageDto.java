@@ -18,5 +18,7 @@ public class MessageDto {
     private String username;
     private String content;
     private Instant createdAt;
+    /** 방 내 순번(빈틈 없이 1씩 증가) — 클라이언트가 누락 감지 후 range API 로 채운다 */
+    private Long seq;
     private List<AttachmentDto> attachments;
 }
@@ -0,0 +1,11 @@
+package com.realtime.chatting.chat.dto;
+
+import java.util.List;
+
+/**
+ * 키셋 페이지 응답.
+ * @param items        오래된 순
+ * @param olderCursor  더 오래된 메시지가 있을 때 다음 요청(direction=older)에 쓰는 커서, 없으면 null
+ * @param newerCursor  더 최근 메시지가 있을 때 다음 요청(direction=newer)에 쓰는 커서, 최신까지 왔으면 null
+ */
+public record MessagePage(List<MessageDto> items, String olderCursor, String newerCursor) {}
@@ -13,4 +13,6 @@ public class RoomDto {
     private Instant createdAt;
     private List<String> members;
     private String title;
+    // 대형 방 단계: 클라이언트가 /topic/rooms/{id}/notify 를 구독해야 알림을 받는다
+    private boolean largeTier;
 }
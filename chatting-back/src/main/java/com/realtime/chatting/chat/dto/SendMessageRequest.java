@@ -12,4 +12,6 @@ import lombok.Setter;
 public class SendMessageRequest {
     private String message;
     private Boolean toAI;
+    /** 선택: STOMP 전송 시 영수증과 매칭할 클라이언트 측 키 */
+    private String clientMessageId;
 }
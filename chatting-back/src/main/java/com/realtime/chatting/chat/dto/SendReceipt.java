@@ -0,0 +1,18 @@
+package com.realtime.chatting.chat.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** STOMP 전송 결과 영수증 (/user/queue/receipts, 보낸 세션에만 전달) */
+public record SendReceipt(
+        String clientMessageId,  // 클라이언트가 보낸 상관관계 키(없으면 null)
+        String roomId,
+        Long id,                 // 저장된 MessageDto.id
+        UUID messageId,
+        Instant createdAt
+) {
+    public static SendReceipt of(String clientMessageId, MessageDto saved) {
+        return new SendReceipt(clientMessageId, saved.getRoomId(), saved.getId(),
+                saved.getMessageId(), saved.getCreatedAt());
+    }
+}
@@ -0,0 +1,28 @@
+package com.realtime.chatting.chat.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /api/sync 응답.
+ * @param cursor         다음 요청의 since
+ * @param reset          true면 since 가 없거나 너무 오래됨 → 전체 재적재 후 cursor 부터 동기화
+ * @param hasMore        변경이 상한보다 많음 → 바로 cursor 로 다시 호출
+ * @param rooms          새로 생겼거나 정보/멤버 구성이 바뀐 방
+ * @param messages       방별 새 메시지(오래된 순, 방당 상한)
+ * @param truncatedRooms 상한을 넘겨 잘린 방 → 마지막 seq 이후를 range API 로 이어받거나 history 로 다시 로드
+ * @param unread         변경된 방의 현재 미읽음 수
+ */
+public record SyncResponse(
+        String cursor,
+        boolean reset,
+        boolean hasMore,
+        List<RoomDto> rooms,
+        Map<String, List<MessageDto>> messages,
+        List<String> truncatedRooms,
+        Map<String, Long> unread
+) {
+    public static SyncResponse reset(long cursor) {
+        return new SyncResponse(String.valueOf(cursor), true, false, List.of(), Map.of(), List.of(), Map.of());
+    }
+}
@@ -0,0 +1,45 @@
+package com.realtime.chatting.chat.entity;
+
+import java.time.Instant;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 증분 동기화(/api/sync)용 변경 로그.
+ * - id: Snowflake(시간순) → 클라이언트 커서로 그대로 사용
+ * - user_id 가 null 이면 방 단위 변경(방 멤버 모두에게 보임), 있으면 해당 사용자에게만 보인다.
+ * 쓰기는 ChangeLogService(JDBC), 엔티티는 스키마 생성용.
+ */
+@Entity
+@Table(name = "chat_change_log",
+       indexes = {
+               // 방 단위 변경(user_id IS NULL)을 방마다 id 범위로 읽는다
+               @Index(name = "ix_change_log_room_scope", columnList = "room_id, user_id, id"),
+               @Index(name = "ix_change_log_user", columnList = "user_id, id")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatChangeLog {
+
+    public enum Kind { MESSAGE, ROOM, MEMBER, READ }
+
+    @Id
+    private Long id;
+
+    @Column(name = "room_id", nullable = false, length = 64)
+    private String roomId;
+
+    @Column(name = "user_id", columnDefinition = "BINARY(16)")
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Kind kind;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
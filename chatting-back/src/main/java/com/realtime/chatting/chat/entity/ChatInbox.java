@@ -0,0 +1,67 @@
+package com.realtime.chatting.chat.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 사용자별 방 목록(인박스) 읽기 모델 — (user, room) 당 한 줄.
+ * - 멤버 합류/방 변경(RoomService), 메시지(ChatEventBridge) 때마다 증분 갱신된다.
+ * - 목록 조회는 ix_inbox_user_activity 범위 스캔 한 번 (최근 활동 순 키셋 페이지).
+ * 쓰기/조회는 InboxService(JDBC), 엔티티는 스키마 생성용.
+ */
+@Entity
+@Table(name = "chat_inbox",
+       indexes = {
+               @Index(name = "ix_inbox_user_activity", columnList = "user_id, last_activity_at, room_id"),
+               @Index(name = "ix_inbox_room", columnList = "room_id")
+       })
+@IdClass(ChatInbox.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatInbox {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "BINARY(16)")
+    private UUID userId;
+
+    @Id
+    @Column(name = "room_id", length = 64)
+    private String roomId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "room_type", nullable = false, length = 10)
+    private ChatRoom.Type roomType;
+
+    // 이 사용자에게 보이는 제목 (DM: 상대 username, GROUP: 방 제목)
+    @Column(length = 200)
+    private String title;
+
+    @Column(name = "last_activity_at", nullable = false)
+    private Instant lastActivityAt;
+
+    @Column(name = "last_sender", length = 100)
+    private String lastSender;
+
+    @Column(length = 100)
+    private String preview;
+
+    // 마지막 메시지의 방 순번 — 커서 미읽음(last_seq - last_read_seq) 계산용
+    @Column(name = "last_seq")
+    private Long lastSeq;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private String roomId;
+    }
+}
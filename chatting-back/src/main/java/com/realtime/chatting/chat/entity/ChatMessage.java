@@ -3,38 +3,68 @@ package com.realtime.chatting.chat.entity;
 import java.time.Instant;
 import jakarta.persistence.*;
 import lombok.*;
+import com.realtime.chatting.chat.repository.projection.MessageRow;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(
         name = "chat_messages",
         indexes = {
                 @Index(name="ix_chat_messages_message_id", columnList="message_id", unique = true),
-                @Index(name="ix_chat_messages_room_created", columnList="room_id, created_at")
+                // 키셋 페이지 (room_id, created_at, id) — 이전 ix_chat_messages_room_created 를 대체
+                @Index(name="ix_chat_messages_room_created_id", columnList="room_id, created_at, id"),
+                @Index(name="ix_chat_messages_room_seq", columnList="room_id, seq", unique = true)
         }
 )
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
-public class ChatMessage {
+public class ChatMessage implements Persistable<Long>, MessageRow {
 
+    // 컬럼 길이 (writer 가 큐에 넣기 전에 검사한다 — 초과 행 하나가 배치 전체를 실패시키지 않도록)
+    public static final int SENDER_MAX = 60;
+    public static final int USERNAME_MAX = 60;
+    public static final int CONTENT_MAX = 2000;
+
+    // IdGenerator(Snowflake)가 발급한 시간순 ID. 과거 IDENTITY 값보다 항상 크다.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // FK가 걸릴 대상이므로 unique 보장 필요
+    // FK가 걸릴 대상이므로 unique 보장 필요 (신규 행은 id의 호환 UUID 문자열)
     @Column(name="message_id", nullable = false, length = 64, unique = true)
     private String messageId;
 
     @Column(name="room_id", nullable = false, length = 64)
     private String roomId;
 
-    @Column(nullable = false, length = 60)
+    @Column(nullable = false, length = SENDER_MAX)
     private String sender;
 
-    @Column(nullable = false, length = 60)
+    @Column(nullable = false, length = USERNAME_MAX)
     private String username;
 
-    @Column(nullable = false, length = 2000)
+    @Column(nullable = false, length = CONTENT_MAX)
     private String content;
 
     @Column(name="created_at", nullable = false, updatable = false)
     private Instant createdAt = Instant.now();
+
+    // 방 안에서의 순번(1부터, 빈틈 없음). writer 트랜잭션에서 chat_rooms.last_seq 로 할당. 이전 행은 null
+    @Column(name="seq", updatable = false)
+    private Long seq;
+
+    // id를 직접 할당하므로 save() 시 merge(SELECT) 대신 persist 되도록 신규 여부를 따로 관리
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean fresh = true;
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.fresh = false;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.realtime.chatting.chat.entity;
+
+import java.time.Instant;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 브로커 발행 대기 이벤트 (transactional outbox).
+ * ChatMessage 와 같은 트랜잭션에서 기록되고, ChatOutboxRelay 가 배치로 점유(lease) → 발행 → confirm 후 삭제한다.
+ */
+@Entity
+@Table(name = "chat_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "routing_key", nullable = false, length = 200)
+    private String routingKey;
+
+    // MessageDto JSON (RabbitTemplate 컨버터와 같은 ObjectMapper로 직렬화)
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // 릴레이가 점유한 기한(epoch ms). null 이거나 지났으면 다른 릴레이가 가져갈 수 있다
+    @Column(name = "lease_until")
+    private Long leaseUntil;
+}
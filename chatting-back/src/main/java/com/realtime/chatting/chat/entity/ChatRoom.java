@@ -25,4 +25,27 @@ public class ChatRoom {
 
     @Column(length = 200)
     private String title;
+
+    /**
+     * 방 메시지 시퀀스(마지막 메시지 번호). 메시지 writer 트랜잭션에서만 증가시킨다.
+     * 엔티티 저장이 동시 증가분을 덮어쓰지 않도록 JPA UPDATE 대상에서 제외.
+     */
+    @Column(name = "last_seq", nullable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long lastSeq;
+
+    /**
+     * 대형 방 단계: 멤버 수가 chat.large-room.member-threshold 에 닿은 적이 있는 방 (LargeRoomTier 가 켜고 끄지 않음).
+     * 이 방의 미읽음은 chat.unread.model 과 무관하게 커서(last_seq - last_read_seq)로만 계산한다.
+     */
+    @Column(name = "large_tier", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private boolean largeTier;
+
+    /**
+     * 기존 메시지 내용이 바뀔 때마다(첨부 추가 등) 올리는 버전. 다른 노드의 최근 메시지 캐시가
+     * last_seq 와 함께 비교해 바뀐 방의 링을 다시 적재한다.
+     */
+    @Column(name = "content_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long contentVersion;
 }
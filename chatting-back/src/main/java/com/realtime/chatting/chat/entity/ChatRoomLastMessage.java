@@ -0,0 +1,47 @@
+package com.realtime.chatting.chat.entity;
+
+import java.time.Instant;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 방별 마지막 메시지 스냅샷 (방 목록용 비정규화).
+ * - 메시지 writer 트랜잭션에서 메시지 INSERT 와 함께 upsert 된다(JDBC). 엔티티는 스키마 생성/PK 조회용.
+ * - 방 행 잠금(last_seq 증가) 안에서 갱신되므로 항상 seq 가 가장 큰 메시지를 가리킨다.
+ */
+@Entity
+@Table(name = "chat_room_last_message")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatRoomLastMessage {
+
+    @Id
+    @Column(name = "room_id", length = 64)
+    private String roomId;
+
+    // 마지막 메시지의 chat_messages.id (Snowflake)
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "message_id", nullable = false, length = 64)
+    private String messageId;
+
+    @Column(nullable = false, length = 60)
+    private String sender;
+
+    @Column(nullable = false, length = 60)
+    private String username;
+
+    // 기존 last-messages 응답과 같도록 본문 전체를 보관
+    @Column(nullable = false, length = 2000)
+    private String content;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "seq")
+    private Long seq;
+}
@@ -26,6 +26,10 @@ public class ChatRoomMember {
     @Column(name = "unread_count", nullable = false)
     private int unreadCount;
 
+    /** 마지막으로 읽은 방 시퀀스 (null = 아직 커서 마이그레이션 전), 읽음 처리 쿼리로만 갱신 */
+    @Column(name = "last_read_seq", updatable = false)
+    private Long lastReadSeq;
+
     // JPA가 INSERT 시 자동으로 현재 시각 채움
     @Column(name = "joined_at", nullable = false, updatable = false)
     @org.hibernate.annotations.CreationTimestamp
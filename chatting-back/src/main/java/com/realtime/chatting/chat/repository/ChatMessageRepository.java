@@ -4,7 +4,7 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-import com.realtime.chatting.chat.repository.projection.LastMessageProjection;
+import com.realtime.chatting.chat.repository.projection.MessageRow;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.realtime.chatting.chat.entity.ChatMessage;
@@ -12,24 +12,51 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
-    @Query(value = """
-        SELECT id, room_id AS roomId, message_id AS messageId, sender, username, content, created_at AS createdAt
-        FROM (
-            SELECT m.*,
-                   ROW_NUMBER() OVER (PARTITION BY m.room_id ORDER BY m.created_at DESC, m.id DESC) AS rn
-            FROM chat_messages m
-            WHERE m.room_id IN (:roomIds)
-        ) x
-        WHERE x.rn = 1
-        """, nativeQuery = true)
-    List<LastMessageProjection> findLastMessagePerRoom(@Param("roomIds") List<String> roomIds);
-
     Optional<ChatMessage> findByMessageId(String messageId);
 
-    // 최신 N개
-    List<ChatMessage> findByRoomIdOrderByCreatedAtDesc(String roomId, Pageable pageable);
+    // ── 키셋 페이지: ix_chat_messages_room_created_id 범위 스캔, 필요한 컬럼만 프로젝션 ──
+    // (created_at <= ts AND (created_at < ts OR id < cursorId)) 형태여야 인덱스 범위로 풀린다
+
+    // 최신 N개 (DESC)
+    @Query("""
+        select m.id as id, m.roomId as roomId, m.messageId as messageId, m.sender as sender,
+               m.username as username, m.content as content, m.createdAt as createdAt, m.seq as seq
+          from ChatMessage m
+         where m.roomId = :roomId
+         order by m.createdAt desc, m.id desc
+        """)
+    List<MessageRow> findLatestRows(@Param("roomId") String roomId, Pageable pageable);
+
+    // (createdAt, id) 커서보다 오래된 N개 (DESC)
+    @Query("""
+        select m.id as id, m.roomId as roomId, m.messageId as messageId, m.sender as sender,
+               m.username as username, m.content as content, m.createdAt as createdAt, m.seq as seq
+          from ChatMessage m
+         where m.roomId = :roomId
+           and m.createdAt <= :ts
+           and (m.createdAt < :ts or m.id < :id)
+         order by m.createdAt desc, m.id desc
+        """)
+    List<MessageRow> findRowsBefore(@Param("roomId") String roomId, @Param("ts") Instant ts,
+                                    @Param("id") long id, Pageable pageable);
+
+    // (createdAt, id) 커서보다 최근 N개 (ASC)
+    @Query("""
+        select m.id as id, m.roomId as roomId, m.messageId as messageId, m.sender as sender,
+               m.username as username, m.content as content, m.createdAt as createdAt, m.seq as seq
+          from ChatMessage m
+         where m.roomId = :roomId
+           and m.createdAt >= :ts
+           and (m.createdAt > :ts or m.id > :id)
+         order by m.createdAt asc, m.id asc
+        """)
+    List<MessageRow> findRowsAfter(@Param("roomId") String roomId, @Param("ts") Instant ts,
+                                   @Param("id") long id, Pageable pageable);
+
+    // 증분 동기화: 커서(Snowflake id) 이후
+    List<ChatMessage> findByRoomIdAndIdGreaterThanOrderByIdAsc(String roomId, long afterId, Pageable pageable);
 
-    // 커서(특정 시각 이전) 기준으로 N개
-    List<ChatMessage> findByRoomIdAndCreatedAtBeforeOrderByCreatedAtDesc(
-            String roomId, Instant before, Pageable pageable);
+    // 순번 구간 (fromSeq, toSeq]
+    List<ChatMessage> findByRoomIdAndSeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+            String roomId, long fromSeq, long toSeq, Pageable pageable);
 }
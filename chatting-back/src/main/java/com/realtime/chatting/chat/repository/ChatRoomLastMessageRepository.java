@@ -0,0 +1,7 @@
+package com.realtime.chatting.chat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import com.realtime.chatting.chat.entity.ChatRoomLastMessage;
+
+public interface ChatRoomLastMessageRepository extends JpaRepository<ChatRoomLastMessage, String> {
+}
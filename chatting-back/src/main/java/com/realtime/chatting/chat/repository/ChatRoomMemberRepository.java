@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,8 +20,48 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
 
     Optional<ChatRoomMember> findByRoomAndUser(ChatRoom room, User user);
 
+    /** 멤버 여부 단건 확인 (멤버십 캐시의 음성 결과 재확인용) */
+    boolean existsByRoomIdAndUserId(String roomId, UUID userId);
+
     List<ChatRoomMember> findByRoom(ChatRoom room);
 
+    /** 내가 속한 방 (합류 순) — 방 목록 1번째 쿼리 */
+    @Query("""
+           select r
+             from ChatRoomMember m
+             join m.room r
+            where m.user.id = :userId
+            order by m.id
+           """)
+    List<ChatRoom> findRoomsOf(@Param("userId") UUID userId);
+
+    /** 내가 속한 모든 방의 멤버 (방 목록 2번째 쿼리, 방 수와 무관하게 한 번) */
+    @Query("""
+           select m.room.id as roomId, u.id as userId, u.email as email, u.username as username
+             from ChatRoomMember m
+             join m.user u
+            where m.room.id in (select mm.room.id from ChatRoomMember mm where mm.user.id = :userId)
+            order by m.id
+           """)
+    List<MemberRow> findMembersOfRoomsOf(@Param("userId") UUID userId);
+
+    /** 한 방의 멤버 (방 상세: 멤버 여부 확인 + 목록 + DM 상대를 한 번에) */
+    @Query("""
+           select m.room.id as roomId, u.id as userId, u.email as email, u.username as username
+             from ChatRoomMember m
+             join m.user u
+            where m.room.id = :roomId
+            order by m.id
+           """)
+    List<MemberRow> findMembersOfRoom(@Param("roomId") String roomId);
+
+    interface MemberRow {
+        String getRoomId();
+        UUID getUserId();
+        String getEmail();
+        String getUsername();
+    }
+
     /** 방 참여자들의 UUID 목록 */
     @Query("""
            select m.user.id
@@ -29,6 +70,19 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
            """)
     List<UUID> findParticipantIds(@Param("roomId") String roomId);
 
+    /** 여러 방의 참여자 (멤버십 캐시 일괄 적재) */
+    @Query("""
+           select m.room.id as roomId, m.user.id as userId
+             from ChatRoomMember m
+            where m.room.id in :roomIds
+           """)
+    List<ParticipantRow> findParticipantsOfRooms(@Param("roomIds") Collection<String> roomIds);
+
+    interface ParticipantRow {
+        String getRoomId();
+        UUID getUserId();
+    }
+
     /** 미읽음 +1 (보낸 본인 제외) */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -39,15 +93,20 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
            """)
     int bumpUnread(@Param("roomId") String roomId, @Param("senderId") UUID senderId);
 
-    /** 내 미읽음 0으로 */
+    /**
+     * 내 미읽음 0으로 + 읽음 커서를 lastSeq 까지 (두 모델을 한 번의 쓰기로 함께 유지).
+     * 방 행은 잠그지 않는다 — writer 는 방 행 → 멤버 행 순으로 잠그므로, 여기서 방 행을 조인하면 순서가 뒤집혀 교착된다.
+     * lastSeq 는 호출자가 잠금 없는 SELECT 로 읽어 넘긴다.
+     */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
-    @Query("""
-           update ChatRoomMember m
-              set m.unreadCount = 0
-            where m.room.id = :roomId
-              and m.user.id  = :meId
-           """)
-    int resetUnread(@Param("roomId") String roomId, @Param("meId") UUID meId);
+    @Query(value = """
+           UPDATE chat_room_members
+              SET unread_count = 0,
+                  last_read_seq = GREATEST(COALESCE(last_read_seq, 0), :lastSeq)
+            WHERE room_id = :roomId
+              AND user_id = :meId
+           """, nativeQuery = true)
+    int resetUnread(@Param("roomId") String roomId, @Param("meId") UUID meId, @Param("lastSeq") long lastSeq);
 
     /** DM 방 기준, 내 미읽음 요약(상대 UUID, 카운트) */
     @Query("""
@@ -78,22 +137,52 @@ public interface ChatRoomMemberRepository extends JpaRepository<ChatRoomMember,
            """)
     Optional<String> findDmPeerId(@Param("roomId") String roomId, @Param("meId") UUID meId);
 
-    // 방 기준 미읽음 요약
+    // 방 기준 미읽음 요약 (대형 방은 카운터를 올리지 않으므로 커서로)
     @Query(value = """
     SELECT rm.room_id AS roomId,
-           SUM(rm.unread_count) AS count
+           SUM(CASE WHEN r.large_tier AND rm.last_read_seq IS NOT NULL
+                    THEN r.last_seq - rm.last_read_seq
+                    ELSE rm.unread_count END) AS count
     FROM chat_room_members rm
+    JOIN chat_rooms r ON r.id = rm.room_id
     WHERE rm.user_id = :userId
-      AND rm.unread_count > 0
     GROUP BY rm.room_id
+    HAVING count > 0
     """, nativeQuery = true)
     List<UnreadRoomProjection> findUnreadPerRoom(@Param("userId") UUID userId);
 
+    // 커서 모델: 방 기준 미읽음 = last_seq - last_read_seq
+    @Query(value = """
+    SELECT rm.room_id AS roomId,
+           (r.last_seq - rm.last_read_seq) AS count
+    FROM chat_room_members rm
+    JOIN chat_rooms r ON r.id = rm.room_id
+    WHERE rm.user_id = :userId
+      AND rm.last_read_seq IS NOT NULL
+      AND r.last_seq > rm.last_read_seq
+    """, nativeQuery = true)
+    List<UnreadRoomProjection> findUnreadPerRoomByCursor(@Param("userId") UUID userId);
+
+    /** 커서 모델: DM 방 기준 내 미읽음 요약(상대 UUID, 카운트) */
+    @Query("""
+        select new com.realtime.chatting.chat.dto.UnreadFriendDto(
+            om.user.id,
+            cast(r.lastSeq - m.lastReadSeq as Integer)
+        )
+          from ChatRoomMember m
+          join m.room r
+          join ChatRoomMember om
+            on om.room = r
+           and om.user.id <> m.user.id
+         where r.type = 'DM'
+           and m.user.id = :meId
+           and m.lastReadSeq is not null
+           and r.lastSeq > m.lastReadSeq
+        """)
+    List<UnreadFriendDto> findDmUnreadOfByCursor(@Param("meId") UUID meId);
+
     interface UnreadRoomProjection {
         UUID getRoomId();
         Long getCount();
     }
-
-    @Query("select rm.room.id from ChatRoomMember rm where rm.user.id = :userId and rm.room.id in :roomIds")
-    List<String> findAuthorizedRoomIds(@Param("userId") UUID userId, @Param("roomIds") List<String> roomIds);
 }
@@ -3,9 +3,26 @@ package com.realtime.chatting.chat.repository;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.realtime.chatting.chat.entity.ChatRoom;
 
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, String> {
     Optional<ChatRoom> findById(String id);
     List<ChatRoom> findByType(ChatRoom.Type type);
+
+    /** 방 메시지 순번(마지막 seq)과 내용 버전만 조회 — 최근 메시지 캐시 신선도 확인용 */
+    @Query("select r.lastSeq as lastSeq, r.contentVersion as contentVersion from ChatRoom r where r.id = :roomId")
+    Optional<CacheVersion> findCacheVersion(@Param("roomId") String roomId);
+
+    /** 기존 메시지 내용 변경(첨부 추가 등) 표시 — 호출자 트랜잭션에서 커밋된다 */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE chat_rooms SET content_version = content_version + 1 WHERE id = :roomId", nativeQuery = true)
+    int bumpContentVersion(@Param("roomId") String roomId);
+
+    interface CacheVersion {
+        long getLastSeq();
+        long getContentVersion();
+    }
 }
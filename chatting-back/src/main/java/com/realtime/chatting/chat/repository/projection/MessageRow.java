@@ -0,0 +1,18 @@
+package com.realtime.chatting.chat.repository.projection;
+
+import java.time.Instant;
+
+/**
+ * 메시지 DTO 매핑에 필요한 컬럼만 담는 프로젝션.
+ * JPQL 별칭과 getter 이름이 같아야 한다. ChatMessage 엔티티도 같은 getter 를 가지므로 이 타입으로 다룰 수 있다.
+ */
+public interface MessageRow {
+    Long getId();
+    String getRoomId();
+    String getMessageId();
+    String getSender();
+    String getUsername();
+    String getContent();
+    Instant getCreatedAt();
+    Long getSeq();
+}
@@ -0,0 +1,113 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.entity.ChatChangeLog.Kind;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import com.realtime.chatting.common.id.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * chat_change_log 기록/정리. 기록은 호출자 트랜잭션에 참여한다(메시지 writer, 방/읽음 서비스).
+ * 보존 기간(retention)보다 오래된 커서는 동기화 불가 → 클라이언트가 전체 재적재한다.
+ */
+@Service
+@Slf4j
+public class ChangeLogService {
+
+    private static final String INSERT_HEAD = "INSERT INTO chat_change_log (id, room_id, user_id, kind, created_at) VALUES ";
+    private static final String ROW = "(?,?,?,?,?)";
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+    private final IdGenerator idGenerator;
+    private final boolean enabled;
+    private final Duration retention;
+
+    public ChangeLogService(JdbcTemplate jdbc,
+                            IdGenerator idGenerator,
+                            @Value("${chat.sync.enabled:true}") boolean enabled,
+                            @Value("${chat.sync.retention-hours:168}") long retentionHours) {
+        this.jdbc = jdbc;
+        this.idGenerator = idGenerator;
+        this.enabled = enabled;
+        this.retention = Duration.ofHours(Math.max(1, retentionHours));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 이 커서 이후 로그가 보존되어 있는지 (정리된 구간이면 false) */
+    public boolean isRetained(long cursor) {
+        return cursor >= retentionFloor();
+    }
+
+    /** 메시지 배치: 방마다 한 줄 */
+    public void messages(Collection<String> roomIds) {
+        append(roomIds.stream().map(r -> new Entry(r, null, Kind.MESSAGE)).toList());
+    }
+
+    /** 방 정보(생성/제목/타입/멤버 구성) 변경 */
+    public void room(String roomId) {
+        append(List.of(new Entry(roomId, null, Kind.ROOM)));
+    }
+
+    /** 멤버 합류: 합류한 사용자에게는 새 방, 기존 멤버에게는 구성 변경으로 보인다 */
+    public void memberJoined(String roomId, UUID userId) {
+        append(List.of(new Entry(roomId, userId, Kind.MEMBER), new Entry(roomId, null, Kind.ROOM)));
+    }
+
+    /** 읽음 처리: 같은 사용자의 다른 기기에 미읽음 변화를 알린다 */
+    public void read(String roomId, UUID userId) {
+        append(List.of(new Entry(roomId, userId, Kind.READ)));
+    }
+
+    @Scheduled(fixedDelayString = "${chat.sync.purge-ms:3600000}")
+    public void purge() {
+        if (!enabled) return;
+        int n = jdbc.update("DELETE FROM chat_change_log WHERE id < ?", retentionFloor());
+        if (n > 0) log.info("change log purged: {} rows", n);
+    }
+
+    private long retentionFloor() {
+        return idGenerator.floorIdAt(System.currentTimeMillis() - retention.toMillis());
+    }
+
+    private void append(List<Entry> entries) {
+        if (!enabled || entries.isEmpty()) return;
+
+        StringBuilder sql = new StringBuilder(INSERT_HEAD);
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(ROW);
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            Calendar utc = Calendar.getInstance(UTC);
+            int i = 1;
+            for (Entry e : entries) {
+                ps.setLong(i++, idGenerator.nextId());
+                ps.setString(i++, e.roomId());
+                if (e.userId() != null) ps.setBytes(i++, UuidBinaryConverter.toBytes(e.userId()));
+                else ps.setNull(i++, Types.BINARY);
+                ps.setString(i++, e.kind().name());
+                ps.setTimestamp(i++, now, utc);
+            }
+            return ps;
+        });
+    }
+
+    private record Entry(String roomId, UUID userId, Kind kind) {}
+}
@@ -1,21 +1,50 @@
 package com.realtime.chatting.chat.service;
 
 import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.config.ChatRouting;
 import com.realtime.chatting.config.RabbitConfig;
-import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.Executor;
+
+/**
+ * 저장된 메시지를 chatExchange 로 발행 (outbox 비활성 시 사용).
+ * - pipelined(기본): 호출 스레드에서 바로 발행, confirm 은 비동기 수신, in-flight window 로 백프레셔
+ * - async: 기존 방식(chatExecutor 에서 convertAndSend, confirm 없음)
+ */
 @Service
-@RequiredArgsConstructor
 public class ChatFanoutService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final ChatRouting routing;
+    private final PipelinedPublisher publisher;
+    private final Executor chatExecutor;
+    private final boolean pipelined;
+
+    public ChatFanoutService(RabbitTemplate rabbitTemplate,
+                             ChatRouting routing,
+                             PipelinedPublisher publisher,
+                             @Qualifier("chatExecutor") Executor chatExecutor,
+                             @Value("${chat.publisher.mode:pipelined}") String mode) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.routing = routing;
+        this.publisher = publisher;
+        this.chatExecutor = chatExecutor;
+        this.pipelined = !"async".equalsIgnoreCase(mode);
+    }
 
-    @Async("chatExecutor")
-    public void publishToBrokerAsync(String roomId, MessageDto msg) {
-        String routingKey = "chat.message.room." + roomId;
-        rabbitTemplate.convertAndSend(RabbitConfig.CHAT_EXCHANGE, routingKey, msg);
+    public void publish(String roomId, MessageDto msg) {
+        String routingKey = routing.roomRoutingKey(roomId);
+        if (pipelined) {
+            Message m = rabbitTemplate.getMessageConverter().toMessage(msg, new MessageProperties());
+            publisher.publish(RabbitConfig.CHAT_EXCHANGE, routingKey, m);
+            return;
+        }
+        chatExecutor.execute(() -> rabbitTemplate.convertAndSend(RabbitConfig.CHAT_EXCHANGE, routingKey, msg));
     }
 }
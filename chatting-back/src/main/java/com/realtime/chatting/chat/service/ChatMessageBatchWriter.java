@@ -0,0 +1,380 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.chat.entity.ChatMessage;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * 채팅 메시지 group-commit writer.
+ * - 동시에 들어온 send 요청들을 짧은 윈도우(window-ms) 또는 최대 건수(max-batch)까지 모아
+ *   하나의 multi-row INSERT + 한 번의 커밋으로 기록한다.
+ * - 각 호출자는 자신이 속한 배치가 커밋된 뒤에야 결과를 돌려받는다(durable 이후 응답).
+ * - id는 호출 측에서 IdGenerator로 미리 할당되어 있어야 하며, JDBC로 직접 적재한다.
+ * - 같은 트랜잭션에서 방 순번(chat_rooms.last_seq)을 잡아 메시지마다 seq 를 매기고, outbox 이벤트도 함께 기록한다.
+ *   증분 동기화용 변경 로그(방마다 한 줄)와 방 목록용 마지막 메시지 스냅샷도 같은 트랜잭션에 남긴다.
+ *   보낸 사람의 읽음 커서(last_read_seq)도 자기 메시지의 seq 까지 함께 올린다.
+ *   방 행 잠금이 커밋까지 유지되므로 여러 노드가 동시에 써도 방 안의 seq 는 커밋 순서대로 빈틈없이 증가한다.
+ * - 배치 트랜잭션이 실패하면(잘못된 행, 데드락 등) 절반씩 나눠 다시 기록해 원인이 된 메시지만 실패시킨다.
+ *   길이 초과처럼 미리 알 수 있는 오류는 큐에 넣기 전에 400 으로 거절한다.
+ * - 비활성화 시에도 같은 경로를 호출 스레드에서 1건 단위로 실행한다.
+ */
+@Component
+@Slf4j
+public class ChatMessageBatchWriter {
+
+    private static final String INSERT_HEAD =
+            "INSERT INTO chat_messages (id, message_id, room_id, sender, username, content, created_at, seq) VALUES ";
+    private static final String ROW = "(?,?,?,?,?,?,?,?)";
+    private static final String BUMP_ROOM_SEQ = "UPDATE chat_rooms SET last_seq = last_seq + ? WHERE id = ?";
+    private static final String SELECT_ROOM_SEQ = "SELECT last_seq FROM chat_rooms WHERE id = ?";
+    // 보낸 사람은 자기 메시지를 읽은 것으로 (cursor 미읽음 = last_seq - last_read_seq)
+    // 잠금 순서: 방 행(BUMP_ROOM_SEQ) → 멤버 행. 읽음 처리(resetUnread)는 방 행을 잠그지 않으므로 역순 교착이 없다
+    private static final String ADVANCE_SENDER_CURSOR =
+            "UPDATE chat_room_members SET last_read_seq = GREATEST(last_read_seq, ?) WHERE room_id = ? AND user_id = ?";
+    private static final String UPSERT_LAST_HEAD =
+            "INSERT INTO chat_room_last_message (room_id, last_id, message_id, sender, username, content, created_at, seq) VALUES ";
+    private static final String UPSERT_LAST_TAIL =
+            " ON DUPLICATE KEY UPDATE last_id = VALUES(last_id), message_id = VALUES(message_id), sender = VALUES(sender),"
+            + " username = VALUES(username), content = VALUES(content), created_at = VALUES(created_at), seq = VALUES(seq)";
+
+    // Hibernate(Instant → TIMESTAMP_UTC)와 동일하게 UTC 기준으로 기록
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ChatOutboxService outboxService;
+    private final ChangeLogService changeLog;
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatch;
+    private final long timeoutMs;
+    private final BlockingQueue<Pending> queue;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitLatency;
+
+    private ExecutorService worker;
+    private volatile boolean running;
+
+    public ChatMessageBatchWriter(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager txManager,
+            ChatOutboxService outboxService,
+            ChangeLogService changeLog,
+            MeterRegistry meterRegistry,
+            @Value("${chat.write-behind.enabled:true}") boolean enabled,
+            @Value("${chat.write-behind.window-ms:5}") long windowMs,
+            @Value("${chat.write-behind.max-batch:200}") int maxBatch,
+            @Value("${chat.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${chat.write-behind.timeout-ms:3000}") long timeoutMs
+    ) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        // 배치가 워커에 넘어간 뒤의 대기 상한 (JdbcTemplate 문장 타임아웃에도 반영됨)
+        this.tx.setTimeout((int) Math.max(1, (timeoutMs + 999) / 1000));
+        this.outboxService = outboxService;
+        this.changeLog = changeLog;
+        this.enabled = enabled;
+        this.windowMs = Math.max(0, windowMs);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.timeoutMs = timeoutMs;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.batchSize = DistributionSummary.builder("chat.write.batch.size")
+                .description("group-commit 1회당 메시지 수")
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("chat.write.commit.latency")
+                .description("배치 INSERT + 커밋 소요 시간")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.write.queue.depth", queue, BlockingQueue::size)
+                .description("커밋 대기 중인 메시지 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "chat-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        worker.submit(this::loop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker == null) return;
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(5, TimeUnit.SECONDS)) worker.shutdownNow();
+        } catch (InterruptedException e) {
+            worker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 메시지를 다음 배치에 실어 보내고, 커밋이 끝날 때까지 대기한다.
+     * 큐 적재와 커밋 대기는 하나의 마감(timeout-ms)을 공유한다. 마감이 지났을 때
+     * - 아직 큐에 있으면 빼내고 503 (저장되지 않았으므로 클라이언트 재시도가 중복을 만들지 않는다)
+     * - 이미 워커가 가져갔으면 취소할 수 없으므로 그 배치의 결과(커밋/실패)를 그대로 돌려준다.
+     *   배치 트랜잭션에 같은 타임아웃을 걸어 두었으므로 이 대기도 유한하다.
+     * @param event 팬아웃 이벤트(outbox 기록용)
+     * @return 저장된 엔티티
+     */
+    public ChatMessage write(ChatMessage m, MessageDto event) {
+        validate(m);
+        Pending p = new Pending(m, event, new CompletableFuture<>());
+        if (!enabled) {
+            flush(List.of(p));
+            return m;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            if (!queue.offer(p, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "message writer is busy");
+            }
+            try {
+                return p.done().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (queue.remove(p)) {
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "message save timed out");
+                }
+                return p.done().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 아직 큐에 있으면 저장되지 않게 빼낸다
+            queue.remove(p);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "interrupted while saving message");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("message save failed", cause);
+        }
+    }
+
+    private void loop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                // 윈도우 동안 또는 max-batch 까지 추가로 모은다
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatch) {
+                    long remain = deadline - System.nanoTime();
+                    if (remain <= 0) {
+                        queue.drainTo(batch, maxBatch - batch.size());
+                        break;
+                    }
+                    Pending next = queue.poll(remain, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flushOrSplit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, e);
+                return;
+            } catch (Throwable t) {
+                log.error("chat-writer: batch failed (size={})", batch.size(), t);
+                failAll(batch, t);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 배치를 기록하고, 실패하면 절반씩 나눠 다시 시도한다(롤백되었으므로 seq 도 다시 매겨진다).
+     * 한 건짜리 배치가 실패하면 그 호출자만 실패를 받는다. 나쁜 행 k 개면 추가 트랜잭션은 약 k·log2(n) 번.
+     */
+    private void flushOrSplit(List<Pending> batch) {
+        try {
+            flush(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("chat-writer: message rejected room={} id={} err={}",
+                        batch.get(0).message().getRoomId(), batch.get(0).message().getId(), e.toString());
+                failAll(batch, e);
+                return;
+            }
+            log.warn("chat-writer: batch failed, splitting (size={}) err={}", batch.size(), e.toString());
+            int mid = batch.size() / 2;
+            flushOrSplit(new ArrayList<>(batch.subList(0, mid)));
+            flushOrSplit(new ArrayList<>(batch.subList(mid, batch.size())));
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long start = System.nanoTime();
+
+        tx.executeWithoutResult(status -> insertAll(batch));
+
+        commitLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+
+        // 커밋 이후에만 호출자를 깨운다
+        for (Pending p : batch) p.done().complete(p.message());
+    }
+
+    private void insertAll(List<Pending> batch) {
+        Set<String> rooms = assignRoomSeqs(batch);
+        advanceSenderCursors(batch);
+        insertMessages(batch);
+        upsertLastMessages(batch);
+        changeLog.messages(rooms);
+        outboxService.appendAll(batch.stream().map(Pending::event).filter(Objects::nonNull).toList());
+    }
+
+    private void insertMessages(List<Pending> batch) {
+        StringBuilder sql = new StringBuilder(INSERT_HEAD.length() + batch.size() * (ROW.length() + 1));
+        sql.append(INSERT_HEAD);
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(ROW);
+        }
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            Calendar utc = Calendar.getInstance(UTC);
+            int i = 1;
+            for (Pending p : batch) {
+                ChatMessage m = p.message();
+                ps.setLong(i++, m.getId());
+                ps.setString(i++, m.getMessageId());
+                ps.setString(i++, m.getRoomId());
+                ps.setString(i++, m.getSender());
+                ps.setString(i++, m.getUsername());
+                ps.setString(i++, m.getContent());
+                ps.setTimestamp(i++, Timestamp.from(m.getCreatedAt()), utc);
+                ps.setObject(i++, m.getSeq(), Types.BIGINT);
+            }
+            return ps;
+        });
+    }
+
+    /**
+     * 방마다 배치의 마지막 메시지(= 가장 큰 seq)로 스냅샷을 덮어쓴다.
+     * 방 행 잠금을 쥔 상태라 같은 방의 다른 배치와 순서가 뒤바뀌지 않는다.
+     */
+    private void upsertLastMessages(List<Pending> batch) {
+        Map<String, ChatMessage> lastPerRoom = new TreeMap<>(); // 잠금 순서 고정
+        for (Pending p : batch) lastPerRoom.put(p.message().getRoomId(), p.message());
+
+        StringBuilder sql = new StringBuilder(UPSERT_LAST_HEAD);
+        for (int i = 0; i < lastPerRoom.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(ROW);
+        }
+        sql.append(UPSERT_LAST_TAIL);
+
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            Calendar utc = Calendar.getInstance(UTC);
+            int i = 1;
+            for (ChatMessage m : lastPerRoom.values()) {
+                ps.setString(i++, m.getRoomId());
+                ps.setLong(i++, m.getId());
+                ps.setString(i++, m.getMessageId());
+                ps.setString(i++, m.getSender());
+                ps.setString(i++, m.getUsername());
+                ps.setString(i++, m.getContent());
+                ps.setTimestamp(i++, Timestamp.from(m.getCreatedAt()), utc);
+                ps.setObject(i++, m.getSeq(), Types.BIGINT);
+            }
+            return ps;
+        });
+    }
+
+    /**
+     * 방마다 last_seq 를 배치 내 메시지 수만큼 올리고(행 잠금) 그 구간을 배치 순서대로 나눠준다.
+     * 방 행이 없으면 seq 는 null 로 남는다.
+     */
+    private Set<String> assignRoomSeqs(List<Pending> batch) {
+        Map<String, List<Pending>> perRoom = new TreeMap<>(); // 잠금 순서 고정
+        for (Pending p : batch) perRoom.computeIfAbsent(p.message().getRoomId(), k -> new ArrayList<>()).add(p);
+
+        perRoom.forEach((roomId, list) -> {
+            if (jdbc.update(BUMP_ROOM_SEQ, list.size(), roomId) == 0) return;
+            Long last = jdbc.queryForObject(SELECT_ROOM_SEQ, Long.class, roomId);
+            if (last == null) return;
+            long seq = last - list.size();
+            for (Pending p : list) {
+                seq++;
+                p.message().setSeq(seq);
+                if (p.event() != null) p.event().setSeq(seq);
+            }
+        });
+        return perRoom.keySet();
+    }
+
+    /** (방, 보낸 사람)마다 배치에서 받은 가장 큰 seq 로 읽음 커서를 올린다 (seq 가 없으면 건너뜀) */
+    private void advanceSenderCursors(List<Pending> batch) {
+        Map<String, Map<String, Long>> maxSeq = new TreeMap<>(); // 잠금 순서 고정
+        for (Pending p : batch) {
+            ChatMessage m = p.message();
+            if (m.getSeq() == null || m.getSender() == null) continue;
+            maxSeq.computeIfAbsent(m.getRoomId(), k -> new TreeMap<>()).merge(m.getSender(), m.getSeq(), Math::max);
+        }
+
+        List<Object[]> args = new ArrayList<>();
+        maxSeq.forEach((roomId, senders) -> senders.forEach((sender, seq) -> {
+            try {
+                args.add(new Object[]{seq, roomId, UuidBinaryConverter.toBytes(UUID.fromString(sender))});
+            } catch (IllegalArgumentException e) {
+                // 사용자 id 가 아닌 발신자(시스템 메시지 등)는 커서가 없다
+            }
+        }));
+        if (!args.isEmpty()) jdbc.batchUpdate(ADVANCE_SENDER_CURSOR, args);
+    }
+
+    /** 컬럼 제약을 큐에 넣기 전에 확인 (DB 에서 실패하면 같은 배치의 다른 메시지까지 재시도 비용을 치른다) */
+    private static void validate(ChatMessage m) {
+        if (m.getContent() == null || m.getSender() == null || m.getUsername() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sender, username and content are required");
+        }
+        if (m.getContent().length() > ChatMessage.CONTENT_MAX) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "content too long (max " + ChatMessage.CONTENT_MAX + ")");
+        }
+        if (m.getSender().length() > ChatMessage.SENDER_MAX || m.getUsername().length() > ChatMessage.USERNAME_MAX) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sender or username too long");
+        }
+    }
+
+    private static void failAll(List<Pending> batch, Throwable t) {
+        for (Pending p : batch) p.done().completeExceptionally(t);
+    }
+
+    private record Pending(ChatMessage message, MessageDto event, CompletableFuture<ChatMessage> done) {}
+}
@@ -0,0 +1,180 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.config.ChatRouting;
+import com.realtime.chatting.config.RabbitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * outbox → chatExchange 배치 릴레이.
+ * - 짧은 트랜잭션에서 오래된 순으로 batch-size 만큼 점유한다(FOR UPDATE SKIP LOCKED + lease_until 기록 후 커밋).
+ *   다른 노드의 릴레이는 잠긴/점유 중인 행을 건너뛰고, 메시지를 쓰는 트랜잭션의 INSERT 도 막지 않는다.
+ * - 발행과 publisher confirm 대기는 트랜잭션 밖에서 하고, ack 받은 행만 id 로 일괄 삭제한다.
+ * - 실패한 행은 점유를 풀어 다음 주기에 재발행 → at-least-once (소비 측은 messageId 로 중복 제거 가능).
+ *   노드가 죽으면 lease 가 지난 뒤 다른 노드가 가져간다.
+ * - 한 배치 안에서는 id 순으로 발행하지만, 재발행되는 행이나 여러 노드가 동시에 릴레이하는 경우
+ *   같은 방의 메시지가 순서를 바꿔 도착할 수 있다. 순서는 소비 측이 seq 로 맞춘다.
+ */
+@Component
+@Slf4j
+public class ChatOutboxRelay {
+
+    private static final String SELECT_BATCH =
+            "SELECT id, routing_key, payload FROM chat_outbox WHERE lease_until IS NULL OR lease_until < ? "
+                    + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate claimTx;
+    private final PipelinedPublisher publisher;
+    private final ChatOutboxService outboxService;
+    private final ChatRouting routing;
+
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final long leaseMs;
+
+    private final Counter published;
+    private final Counter failed;
+
+    public ChatOutboxRelay(JdbcTemplate jdbc,
+                           PlatformTransactionManager txManager,
+                           PipelinedPublisher publisher,
+                           ChatOutboxService outboxService,
+                           ChatRouting routing,
+                           MeterRegistry meterRegistry,
+                           @Value("${chat.outbox.batch-size:500}") int batchSize,
+                           @Value("${chat.outbox.confirm-timeout-ms:30000}") long confirmTimeoutMs,
+                           @Value("${chat.outbox.lease-ms:60000}") long leaseMs) {
+        this.jdbc = jdbc;
+        // 점유만 하는 짧은 트랜잭션. READ COMMITTED 라 스캔 범위에 gap lock 을 걸지 않는다
+        this.claimTx = new TransactionTemplate(txManager);
+        this.claimTx.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.publisher = publisher;
+        this.outboxService = outboxService;
+        this.routing = routing;
+        this.batchSize = Math.max(1, batchSize);
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.leaseMs = Math.max(leaseMs, confirmTimeoutMs + 1000);
+
+        this.published = Counter.builder("chat.outbox.published").register(meterRegistry);
+        this.failed = Counter.builder("chat.outbox.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.outbox.poll-ms:20}")
+    public void relay() {
+        if (!outboxService.isEnabled()) return;
+        try {
+            // 가득 찬 배치가 나오는 동안은 연속으로 비운다(버스트 대응)
+            while (relayBatch()) {
+                // continue
+            }
+        } catch (Exception e) {
+            log.warn("outbox relay failed: {}", e.toString());
+        }
+    }
+
+    /** @return 배치가 가득 찼고 모두 ack 되었으면 true(바로 다음 배치 진행) */
+    private boolean relayBatch() {
+        List<Row> rows = claim();
+        if (rows.isEmpty()) return false;
+
+        // 1) 모두 발행(파이프라인, 재시도는 발행기가 담당)
+        List<CompletableFuture<Boolean>> pending = new ArrayList<>(rows.size());
+        for (Row r : rows) {
+            pending.add(publisher.publish(RabbitConfig.CHAT_EXCHANGE, currentRoutingKey(r.routingKey()), toAmqp(r)));
+        }
+
+        // 2) confirm 일괄 대기
+        List<Long> acked = new ArrayList<>(rows.size());
+        List<Long> failedIds = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (int i = 0; i < rows.size(); i++) {
+            long id = rows.get(i).id();
+            try {
+                long remain = Math.max(0, deadline - System.nanoTime());
+                if (Boolean.TRUE.equals(pending.get(i).get(remain, TimeUnit.NANOSECONDS))) {
+                    acked.add(id);
+                    continue;
+                }
+            } catch (Exception e) {
+                log.warn("outbox confirm timeout/failure: id={} err={}", id, e.toString());
+            }
+            failedIds.add(id);
+        }
+
+        // 3) ack 된 행 삭제, 실패한 행은 점유 해제 (각각 autocommit 한 문장)
+        if (!acked.isEmpty()) {
+            jdbc.update("DELETE FROM chat_outbox WHERE id IN (" + placeholders(acked) + ")", acked.toArray());
+        }
+        if (!failedIds.isEmpty()) {
+            jdbc.update("UPDATE chat_outbox SET lease_until = NULL WHERE id IN (" + placeholders(failedIds) + ")",
+                    failedIds.toArray());
+        }
+        published.increment(acked.size());
+        failed.increment(failedIds.size());
+
+        return rows.size() == batchSize && failedIds.isEmpty();
+    }
+
+    /** 점유 가능한 행을 잠그고 lease_until 을 기록한 뒤 바로 커밋 */
+    private List<Row> claim() {
+        List<Row> rows = claimTx.execute(status -> {
+            long now = System.currentTimeMillis();
+            List<Row> batch = jdbc.query(SELECT_BATCH,
+                    (rs, i) -> new Row(rs.getLong("id"), rs.getString("routing_key"), rs.getString("payload")),
+                    now, batchSize);
+            if (batch.isEmpty()) return batch;
+
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(now + leaseMs);
+            batch.forEach(r -> args.add(r.id()));
+            jdbc.update("UPDATE chat_outbox SET lease_until = ? WHERE id IN (" + placeholders(batch) + ")",
+                    args.toArray());
+            return batch;
+        });
+        return rows != null ? rows : List.of();
+    }
+
+    private static String placeholders(List<?> values) {
+        return values.stream().map(v -> "?").collect(Collectors.joining(","));
+    }
+
+    /** 파티션 수가 바뀐 뒤에도 남은 행이 유실되지 않도록 발행 시점 기준으로 파티션을 다시 계산 */
+    private String currentRoutingKey(String stored) {
+        String roomId = ChatRouting.roomIdOf(stored);
+        return roomId != null ? routing.roomRoutingKey(roomId) : stored;
+    }
+
+    private static Message toAmqp(Row r) {
+        return MessageBuilder.withBody(r.payload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId(String.valueOf(r.id()))
+                // Jackson2JsonMessageConverter 가 타입을 복원할 수 있도록 (convertAndSend 와 동일)
+                .setHeader("__TypeId__", MessageDto.class.getName())
+                .build();
+    }
+
+    private record Row(long id, String routingKey, String payload) {}
+}
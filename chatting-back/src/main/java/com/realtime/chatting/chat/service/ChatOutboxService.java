@@ -0,0 +1,79 @@
+package com.realtime.chatting.chat.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.config.ChatRouting;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * outbox 기록 담당. 반드시 메시지 저장과 같은 트랜잭션 안에서 호출해야 한다.
+ */
+@Service
+public class ChatOutboxService {
+
+    private static final String INSERT_HEAD = "INSERT INTO chat_outbox (routing_key, payload, created_at) VALUES ";
+    private static final String ROW = "(?,?,?)";
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final ChatRouting routing;
+    private final boolean enabled;
+
+    public ChatOutboxService(JdbcTemplate jdbc,
+                             ObjectMapper objectMapper,
+                             ChatRouting routing,
+                             @Value("${chat.outbox.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.routing = routing;
+        this.enabled = enabled;
+    }
+
+    /** true면 브로커 발행은 릴레이가 담당(호출자는 ChatFanoutService.publish 를 부르지 않는다) */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** 메시지 이벤트들을 multi-row INSERT로 기록 (현재 트랜잭션에 참여) */
+    public void appendAll(List<MessageDto> events) {
+        if (!enabled || events.isEmpty()) return;
+
+        StringBuilder sql = new StringBuilder(INSERT_HEAD);
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(ROW);
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            Calendar utc = Calendar.getInstance(UTC);
+            int i = 1;
+            for (MessageDto e : events) {
+                ps.setString(i++, routing.roomRoutingKey(e.getRoomId()));
+                ps.setString(i++, toJson(e));
+                ps.setTimestamp(i++, now, utc);
+            }
+            return ps;
+        });
+    }
+
+    private String toJson(MessageDto e) {
+        try {
+            return objectMapper.writeValueAsString(e);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("outbox serialize failed: " + e.getMessageId(), ex);
+        }
+    }
+}
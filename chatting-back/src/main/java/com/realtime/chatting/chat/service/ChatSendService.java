@@ -0,0 +1,64 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.ai.repository.RoomAiMemberRepository;
+import com.realtime.chatting.ai.service.AiChatService;
+import com.realtime.chatting.chat.dto.MessageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+import static com.realtime.chatting.ai.util.MentionUtil.hasAiMention;
+import static com.realtime.chatting.ai.util.MentionUtil.stripOneAiMention;
+
+/**
+ * 사람 메시지 전송 공통 흐름 (REST / STOMP 공용)
+ * 저장(+outbox) → @ai 멘션 라우팅 → 브로커 퍼블리시
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatSendService {
+
+    private final MessageService messageService;
+    private final RoomMembershipCache membership;
+    private final AiChatService aiChatService;
+    private final RoomAiMemberRepository roomAiMemberRepository;
+
+    // 브로커 퍼블리시(confirm 파이프라인) 서비스 (outbox 모드면 릴레이가 대신 발행)
+    private final ChatFanoutService chatFanoutService;
+    private final ChatOutboxService outboxService;
+
+    /**
+     * @param senderId 보낸 사람 UUID (sender 컬럼 = 미읽음/알림 키와 일치)
+     * @param username 화면 표기용 이름
+     */
+    public MessageDto send(String roomId, UUID senderId, String username, String content) {
+        membership.requireMember(roomId, senderId);
+
+        MessageDto saved = messageService.createUserMessage(
+                roomId,
+                username,
+                senderId.toString(),
+                content
+        );
+
+        // @ai 멘션이 있으면 AI 라우팅
+        if (hasAiMention(content)) {
+            // 룸에 AI가 없으면 스킵
+            boolean hasAiInRoom = !roomAiMemberRepository.findByIdRoomId(roomId).isEmpty();
+            if (hasAiInRoom) {
+                String cleaned = stripOneAiMention(content);
+                // onHumanMessage는 @Async로 선언해두면 요청을 막지 않습니다.
+                aiChatService.onHumanMessage(roomId, cleaned);
+            }
+        }
+
+        // 브로커 퍼블리시는 confirm 을 기다리지 않음(채팅 UX를 블로킹하지 않음)
+        // outbox 모드면 저장 트랜잭션에 이미 기록되어 있으므로 릴레이에 맡긴다
+        if (!outboxService.isEnabled()) {
+            chatFanoutService.publish(roomId, saved);
+        }
+
+        return saved;
+    }
+}
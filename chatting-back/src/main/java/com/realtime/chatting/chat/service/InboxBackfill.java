@@ -0,0 +1,79 @@
+package com.realtime.chatting.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 인박스 줄이 없는 멤버십을 chat_inbox 로 채우는 1회성 마이그레이션 (재실행해도 안전).
+ * 기본은 꺼져 있다 — 배포 때 한 번 chat.inbox.backfill=true 로 띄우고 다시 끈다.
+ * 방 id 순으로 rooms-per-chunk 개씩 끊어 문장마다 따로 커밋한다(긴 잠금/전체 스캔 없음).
+ * 마지막 메시지 스냅샷(chat_room_last_message)을 쓰므로 그 백필 이후에 돈다.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class InboxBackfill implements ApplicationRunner {
+
+    private static final String NEXT_ROOMS = "SELECT id FROM chat_rooms WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String BACKFILL = """
+            INSERT IGNORE INTO chat_inbox
+                   (user_id, room_id, room_type, title, last_activity_at, last_sender, preview, last_seq)
+            SELECT rm.user_id, r.id, r.type,
+                   CASE WHEN r.type = 'DM'
+                        THEN COALESCE((SELECT NULLIF(u.username, '')
+                                         FROM chat_room_members om
+                                         JOIN `user` u ON u.id = om.user_id
+                                        WHERE om.room_id = r.id AND om.user_id <> rm.user_id
+                                        LIMIT 1), ?)
+                        ELSE NULLIF(r.title, '') END,
+                   COALESCE(lm.created_at, r.created_at),
+                   lm.username,
+                   LEFT(lm.content, 80),
+                   lm.seq
+              FROM chat_room_members rm
+              JOIN chat_rooms r ON r.id = rm.room_id
+              LEFT JOIN chat_room_last_message lm ON lm.room_id = r.id
+             WHERE rm.room_id BETWEEN ? AND ?
+               AND NOT EXISTS (SELECT 1 FROM chat_inbox i WHERE i.user_id = rm.user_id AND i.room_id = rm.room_id)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final int roomsPerChunk;
+
+    public InboxBackfill(JdbcTemplate jdbc,
+                         @Value("${chat.inbox.backfill:false}") boolean enabled,
+                         @Value("${chat.backfill.rooms-per-chunk:500}") int roomsPerChunk) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.roomsPerChunk = Math.max(1, roomsPerChunk);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        try {
+            int rows = 0;
+            String after = "";
+            while (true) {
+                List<String> chunk = jdbc.queryForList(NEXT_ROOMS, String.class, after, roomsPerChunk);
+                if (chunk.isEmpty()) break;
+                after = chunk.get(chunk.size() - 1);
+                rows += jdbc.update(BACKFILL, InboxService.NO_TITLE, chunk.get(0), after);
+                if (chunk.size() < roomsPerChunk) break;
+            }
+            log.info("inbox backfill done: rows={}", rows);
+        } catch (Exception e) {
+            log.warn("inbox backfill failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.InboxItem;
+import com.realtime.chatting.chat.dto.InboxPage;
+import com.realtime.chatting.chat.entity.ChatRoom;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 인박스(chat_inbox) 증분 갱신/조회. 쓰기는 호출자 트랜잭션에 참여한다.
+ * 미읽음은 /api/unread(UnreadCounterService)와 같은 식으로 계산한다:
+ * - cursor 모델: chat_rooms.last_seq - last_read_seq
+ * - counter 모델: unread_count (대형 방은 커서), 버퍼에 쌓인 증분을 먼저 반영한 뒤 읽는다
+ * 인박스 줄의 last_seq 는 브리지가 비동기로 갱신하므로 미읽음 계산에는 쓰지 않는다.
+ * 새 메시지는 메시지마다 멤버 전원의 줄을 쓰지 않고 방별 마지막 값만 모아 flush-ms 주기로 반영한다
+ * (브리지 파티션 컨슈머 스레드에서 O(멤버) 행 잠금을 잡지 않도록).
+ */
+@Service
+@Slf4j
+public class InboxService {
+
+    public static final String NO_TITLE = "방 제목 없음";
+    private static final int PAGE_MAX = 100;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static final String INSERT_JOINED = """
+            INSERT IGNORE INTO chat_inbox (user_id, room_id, room_type, title, last_activity_at)
+            VALUES (?,?,?,?,?)
+            """;
+
+    // 같은 방 메시지는 파티션 컨슈머가 순서대로 넘기지만, 재전송 등으로 늦게 온 메시지가 되돌리지 않도록 시각 비교
+    private static final String UPDATE_ON_MESSAGE = """
+            UPDATE chat_inbox
+               SET last_activity_at = ?, last_sender = ?, preview = ?, last_seq = ?
+             WHERE room_id = ?
+               AND last_activity_at <= ?
+            """;
+
+    private static final String SELECT_PAGE = """
+            SELECT i.room_id, i.room_type, i.title, i.last_activity_at, i.last_sender, i.preview, i.last_seq,
+                   %s AS unread
+              FROM chat_inbox i
+              LEFT JOIN chat_room_members rm ON rm.room_id = i.room_id AND rm.user_id = i.user_id
+              LEFT JOIN chat_rooms r ON r.id = i.room_id
+             WHERE i.user_id = ? %s
+             ORDER BY i.last_activity_at DESC, i.room_id DESC
+             LIMIT ?
+            """;
+    private static final String NEXT_PAGE_CONDITION =
+            "AND i.last_activity_at <= ? AND (i.last_activity_at < ? OR i.room_id < ?)";
+    // ChatRoomMemberRepository.findUnreadPerRoomByCursor 와 같은 식
+    private static final String CURSOR_UNREAD = """
+            CASE WHEN rm.last_read_seq IS NULL THEN 0
+                 ELSE GREATEST(r.last_seq - rm.last_read_seq, 0) END""";
+    // ChatRoomMemberRepository.findUnreadPerRoom 과 같은 식
+    private static final String COUNTER_UNREAD = """
+            CASE WHEN r.large_tier AND rm.last_read_seq IS NOT NULL
+                 THEN GREATEST(r.last_seq - rm.last_read_seq, 0)
+                 ELSE COALESCE(rm.unread_count, 0) END""";
+
+    private final JdbcTemplate jdbc;
+    private final UnreadCounterService unreadCounter;
+    private final String firstPage;
+    private final String nextPage;
+
+    // 방 → 아직 반영하지 않은 마지막 메시지
+    private final Map<String, Activity> pendingActivity = new ConcurrentHashMap<>();
+
+    public InboxService(JdbcTemplate jdbc, UnreadCounterService unreadCounter) {
+        this.jdbc = jdbc;
+        this.unreadCounter = unreadCounter;
+        String unread = unreadCounter.isCursor() ? CURSOR_UNREAD : COUNTER_UNREAD;
+        this.firstPage = SELECT_PAGE.formatted(unread, "");
+        this.nextPage = SELECT_PAGE.formatted(unread, NEXT_PAGE_CONDITION);
+    }
+
+    /** 멤버 합류: 방 목록에 줄 추가 (이미 있으면 그대로) */
+    public void joined(String roomId, UUID userId, ChatRoom.Type type, @Nullable String title, Instant at) {
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_JOINED);
+            ps.setBytes(1, UuidBinaryConverter.toBytes(userId));
+            ps.setString(2, roomId);
+            ps.setString(3, type.name());
+            ps.setString(4, title);
+            ps.setTimestamp(5, Timestamp.from(at), Calendar.getInstance(UTC));
+            return ps;
+        });
+    }
+
+    /** 한 사용자에게 보이는 제목 변경 (DM 상대 이름) */
+    public void retitle(String roomId, UUID userId, @Nullable String title) {
+        jdbc.update("UPDATE chat_inbox SET title = ? WHERE room_id = ? AND user_id = ?",
+                title, roomId, UuidBinaryConverter.toBytes(userId));
+    }
+
+    /** 방 타입/제목 변경 (DM → GROUP 승격 등): 모든 멤버의 줄 */
+    public void roomChanged(String roomId, ChatRoom.Type type, @Nullable String title) {
+        jdbc.update("UPDATE chat_inbox SET room_type = ?, title = ? WHERE room_id = ?",
+                type.name(), title, roomId);
+    }
+
+    /** 새 메시지 예약: 같은 방은 가장 최근 메시지만 남아 다음 flush 때 한 번 반영된다 */
+    public void activity(String roomId, @Nullable Long seq, Instant at, String sender, String preview) {
+        pendingActivity.merge(roomId, new Activity(seq, at, sender, preview),
+                (prev, next) -> next.at().isBefore(prev.at()) ? prev : next);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.inbox.flush-ms:1000}")
+    public void flushActivity() {
+        for (String roomId : pendingActivity.keySet()) {
+            Activity a = pendingActivity.remove(roomId);
+            if (a == null) continue;
+            try {
+                onMessage(roomId, a.seq(), a.at(), a.sender(), a.preview());
+            } catch (Exception e) {
+                // 더 새 값이 들어와 있지 않으면 다음 주기에 다시
+                pendingActivity.putIfAbsent(roomId, a);
+                log.warn("inbox flush failed: room={} err={}", roomId, e.toString());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushActivity();
+    }
+
+    /** 방 멤버 모두의 최근 활동/미리보기 갱신 (ix_inbox_room) */
+    public void onMessage(String roomId, @Nullable Long seq, Instant at, String sender, String preview) {
+        jdbc.update(con -> {
+            Calendar utc = Calendar.getInstance(UTC);
+            Timestamp ts = Timestamp.from(at);
+            PreparedStatement ps = con.prepareStatement(UPDATE_ON_MESSAGE);
+            ps.setTimestamp(1, ts, utc);
+            ps.setString(2, sender);
+            ps.setString(3, preview);
+            ps.setObject(4, seq, java.sql.Types.BIGINT);
+            ps.setString(5, roomId);
+            ps.setTimestamp(6, ts, utc);
+            return ps;
+        });
+    }
+
+    /** 최근 활동 순 키셋 페이지 */
+    public InboxPage page(UUID userId, @Nullable String cursor, int limit) {
+        int capped = Math.min(PAGE_MAX, Math.max(1, limit));
+        Cursor c = (cursor == null || cursor.isBlank()) ? null : Cursor.decode(cursor);
+        byte[] uid = UuidBinaryConverter.toBytes(userId);
+        Calendar utc = Calendar.getInstance(UTC);
+
+        List<InboxItem> rows = unreadCounter.readThrough(userId, () -> jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(c == null ? firstPage : nextPage);
+            int i = 1;
+            ps.setBytes(i++, uid);
+            if (c != null) {
+                Timestamp ts = Timestamp.from(c.at());
+                ps.setTimestamp(i++, ts, utc);
+                ps.setTimestamp(i++, ts, utc);
+                ps.setString(i++, c.roomId());
+            }
+            ps.setInt(i, capped + 1);
+            return ps;
+        }, (rs, n) -> toItem(rs, utc)));
+
+        boolean more = rows.size() > capped;
+        List<InboxItem> items = more ? rows.subList(0, capped) : rows;
+        String next = null;
+        if (more) {
+            InboxItem last = items.get(items.size() - 1);
+            next = new Cursor(last.lastActivityAt(), last.roomId()).encode();
+        }
+        return new InboxPage(items, next);
+    }
+
+    private static InboxItem toItem(ResultSet rs, Calendar utc) throws SQLException {
+        long seq = rs.getLong("last_seq");
+        Long lastSeq = rs.wasNull() ? null : seq;
+        Timestamp at = rs.getTimestamp("last_activity_at", utc);
+        return new InboxItem(
+                rs.getString("room_id"),
+                rs.getString("room_type"),
+                rs.getString("title"),
+                at != null ? at.toInstant() : null,
+                rs.getString("last_sender"),
+                rs.getString("preview"),
+                lastSeq,
+                rs.getLong("unread"));
+    }
+
+    private record Activity(@Nullable Long seq, Instant at, String sender, String preview) {}
+
+    /** 인박스 커서: (last_activity_at, room_id) */
+    private record Cursor(Instant at, String roomId) {
+        String encode() {
+            String raw = at.getEpochSecond() + ":" + at.getNano() + ":" + roomId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] p = raw.split(":", 3);
+                if (p.length != 3 || p[2].isEmpty()) throw new IllegalArgumentException("parts");
+                return new Cursor(Instant.ofEpochSecond(Long.parseLong(p[0]), Long.parseLong(p[1])), p[2]);
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.realtime.chatting.chat.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 대형 방(회사 전체 채널 등) 팬아웃 단계.
+ * 멤버 수가 member-threshold 이상인 방은 브리지에서 멤버별 작업을 하지 않는다.
+ * - 알림: 사용자별 chat-notify 대신 /topic/rooms/{roomId}/notify 한 번 (멤버 클라이언트가 구독)
+ * - 미읽음: 멤버별 카운터 대신 커서(last_seq - last_read_seq). chat_rooms.large_tier 로 조회 쿼리가 구분한다.
+ * 한 번 대형 방이 되면 large_tier 는 내려가지 않는다(커서 값은 두 모델 모두 유지되므로 어느 쪽이든 정확).
+ */
+@Service
+@Slf4j
+public class LargeRoomTier {
+
+    private static final String MARK = "UPDATE chat_rooms SET large_tier = TRUE WHERE id = ? AND large_tier = FALSE";
+
+    private final JdbcTemplate jdbc;
+    private final int threshold;
+
+    // 이 노드에서 이미 large_tier 를 켠 방
+    private final Set<String> marked = ConcurrentHashMap.newKeySet();
+
+    public LargeRoomTier(JdbcTemplate jdbc,
+                         MeterRegistry meterRegistry,
+                         @Value("${chat.large-room.member-threshold:2000}") int threshold) {
+        this.jdbc = jdbc;
+        this.threshold = threshold;
+
+        Gauge.builder("chat.large-room.rooms", marked, Set::size)
+                .description("이 노드에서 대형 방으로 처리한 방 수")
+                .register(meterRegistry);
+    }
+
+    /** 대형 방 팬아웃 대상인지 (0 이하 임계값이면 끔). 처음 넘을 때 large_tier 를 켠다. */
+    public boolean isLarge(String roomId, int memberCount) {
+        if (threshold <= 0 || memberCount < threshold) return false;
+        if (marked.add(roomId)) {
+            jdbc.update(MARK, roomId);
+            log.info("large room tier: room={} members={}", roomId, memberCount);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                // 호출자(브리지) 트랜잭션이 롤백되면 다음 메시지에서 다시 켠다
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) marked.remove(roomId);
+                    }
+                });
+            }
+        }
+        return true;
+    }
+}
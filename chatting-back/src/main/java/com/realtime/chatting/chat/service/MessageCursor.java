@@ -0,0 +1,36 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * history 키셋 커서: (createdAt, id) 를 불투명 문자열로 인코딩.
+ * 같은 시각의 메시지도 id 로 구분되므로 페이지 경계에서 누락/중복이 없다.
+ */
+public record MessageCursor(Instant createdAt, long id) {
+
+    public static MessageCursor of(MessageDto m) {
+        return new MessageCursor(m.getCreatedAt(), m.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static MessageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            String[] p = raw.split(":");
+            if (p.length != 3) throw new IllegalArgumentException("parts");
+            return new MessageCursor(Instant.ofEpochSecond(Long.parseLong(p[0]), Long.parseLong(p[1])), Long.parseLong(p[2]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor");
+        }
+    }
+}
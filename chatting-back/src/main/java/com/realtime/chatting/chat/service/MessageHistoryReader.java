@@ -0,0 +1,139 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.AttachmentDto;
+import com.realtime.chatting.chat.dto.MessageDto;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * history 전용 읽기 경로 (영속성 컨텍스트 없음).
+ * 메시지 페이지를 파생 테이블로 잘라낸 뒤 첨부를 LEFT JOIN 해 한 번의 왕복으로 가져오고,
+ * 결과 행을 순서대로 훑으며 MessageDto 를 바로 조립한다. (엔티티/프록시/스냅샷 생성 없음)
+ * 반환 목록은 항상 오래된 순이고, 첨부는 id 오름차순 — JPA 경로(toDtos)와 같은 모양이다.
+ */
+@Component
+public class MessageHistoryReader {
+
+    private static final String SELECT = """
+            SELECT m.id, m.room_id, m.message_id, m.sender, m.username, m.content, m.created_at, m.seq,
+                   a.id AS a_id, a.storage_key, a.public_url, a.size, a.content_type, a.original_name,
+                   a.width, a.height, a.created_at AS a_created_at
+              FROM (SELECT id, room_id, message_id, sender, username, content, created_at, seq
+                      FROM chat_messages
+                     WHERE room_id = ? %s
+                     ORDER BY created_at %s, id %s
+                     LIMIT ?) m
+              LEFT JOIN chat_attachment a ON a.message_id = m.message_id
+             ORDER BY m.created_at, m.id, a.id
+            """;
+
+    private static final String LATEST = SELECT.formatted("", "DESC", "DESC");
+    private static final String BEFORE = SELECT.formatted(
+            "AND created_at <= ? AND (created_at < ? OR id < ?)", "DESC", "DESC");
+    private static final String AFTER = SELECT.formatted(
+            "AND created_at >= ? AND (created_at > ? OR id > ?)", "ASC", "ASC");
+
+    // writer 가 UTC 로 기록하므로 읽을 때도 UTC
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final JdbcTemplate jdbc;
+
+    public MessageHistoryReader(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /** 최신 limit 건 */
+    public List<MessageDto> latest(String roomId, int limit) {
+        return query(LATEST, roomId, limit);
+    }
+
+    /** (ts, id) 보다 오래된 limit 건 */
+    public List<MessageDto> before(String roomId, Instant ts, long id, int limit) {
+        Timestamp t = Timestamp.from(ts);
+        return query(BEFORE, roomId, t, t, id, limit);
+    }
+
+    /** (ts, id) 보다 최근 limit 건 */
+    public List<MessageDto> after(String roomId, Instant ts, long id, int limit) {
+        Timestamp t = Timestamp.from(ts);
+        return query(AFTER, roomId, t, t, id, limit);
+    }
+
+    private List<MessageDto> query(String sql, Object... args) {
+        List<MessageDto> out = new ArrayList<>();
+        Calendar utc = Calendar.getInstance(UTC);
+        jdbc.query(con -> {
+            var ps = con.prepareStatement(sql);
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Timestamp ts) ps.setTimestamp(i + 1, ts, utc);
+                else ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            // 같은 메시지의 행(첨부 수만큼)은 연속으로 온다
+            long id = rs.getLong("id");
+            MessageDto last = out.isEmpty() ? null : out.get(out.size() - 1);
+            if (last == null || last.getId() != id) {
+                last = MessageDto.builder()
+                        .id(id)
+                        .roomId(rs.getString("room_id"))
+                        .messageId(MessageService.parseUuidSafe(rs.getString("message_id")))
+                        .sender(rs.getString("sender"))
+                        .username(rs.getString("username"))
+                        .content(rs.getString("content"))
+                        .createdAt(instant(rs.getTimestamp("created_at", utc)))
+                        .seq(nullableLong(rs, "seq"))
+                        .attachments(new ArrayList<>())
+                        .build();
+                out.add(last);
+            }
+            Long attachmentId = nullableLong(rs, "a_id");
+            if (attachmentId != null) {
+                last.getAttachments().add(AttachmentDto.builder()
+                        .id(attachmentId)
+                        .storageKey(rs.getString("storage_key"))
+                        .url(rs.getString("public_url"))
+                        .size(nullableLong(rs, "size"))
+                        .contentType(rs.getString("content_type"))
+                        .originalName(rs.getString("original_name"))
+                        .width(nullableInt(rs, "width"))
+                        .height(nullableInt(rs, "height"))
+                        .createdAt(instant(rs.getTimestamp("a_created_at", utc)))
+                        .build());
+            }
+        });
+        // 첨부 없는 메시지는 JPA 경로와 같이 불변 빈 목록
+        for (MessageDto m : out) {
+            if (m.getAttachments().isEmpty()) m.setAttachments(List.of());
+        }
+        return out;
+    }
+
+    @Nullable
+    private static Instant instant(@Nullable Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+
+    @Nullable
+    private static Long nullableLong(ResultSet rs, String col) throws SQLException {
+        long v = rs.getLong(col);
+        return rs.wasNull() ? null : v;
+    }
+
+    @Nullable
+    private static Integer nullableInt(ResultSet rs, String col) throws SQLException {
+        int v = rs.getInt(col);
+        return rs.wasNull() ? null : v;
+    }
+}
@@ -0,0 +1,56 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.chat.dto.MessagePage;
+import com.realtime.chatting.common.concurrent.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 조회 API 앞단의 요청 합치기 계층.
+ * 인기 방에 푸시가 나가 같은 조회가 한꺼번에 몰려도 DB 쿼리는 키당 하나만 실행된다.
+ * (트랜잭션 밖에서 합치므로 대기 중인 요청은 커넥션을 잡지 않는다)
+ */
+@Service
+public class MessageReadService {
+
+    private final MessageService messageService;
+    private final SingleFlight<HistoryKey, List<MessageDto>> historyFlight;
+    private final SingleFlight<List<String>, List<MessageDto>> lastFlight;
+    private final SingleFlight<PageKey, MessagePage> pageFlight;
+
+    public MessageReadService(MessageService messageService, MeterRegistry meterRegistry) {
+        this.messageService = messageService;
+        this.historyFlight = new SingleFlight<>(meterRegistry, "history");
+        this.lastFlight = new SingleFlight<>(meterRegistry, "last-messages");
+        this.pageFlight = new SingleFlight<>(meterRegistry, "page");
+    }
+
+    public List<MessageDto> history(String roomId, int limit, @Nullable Instant before) {
+        HistoryKey key = new HistoryKey(roomId, limit, before);
+        return historyFlight.execute(key, () -> messageService.history(roomId, limit, before));
+    }
+
+    public MessagePage page(String roomId, int limit, @Nullable String cursor, @Nullable String direction) {
+        PageKey key = new PageKey(roomId, limit, cursor, direction);
+        return pageFlight.execute(key, () -> messageService.page(roomId, limit, cursor, direction));
+    }
+
+    /** 멤버십 검증은 사용자별로, 최신 메시지 조회는 (정렬된) 방 집합 기준으로 합친다 */
+    public List<MessageDto> lastMessagesBulk(UUID myUserId, List<String> roomIds) {
+        List<String> authorized = messageService.authorizedRooms(myUserId, roomIds);
+        if (authorized.isEmpty()) return List.of();
+
+        List<String> key = authorized.stream().distinct().sorted().toList();
+        return lastFlight.execute(key, () -> messageService.lastMessages(key));
+    }
+
+    private record HistoryKey(String roomId, int limit, Instant before) {}
+
+    private record PageKey(String roomId, int limit, String cursor, String direction) {}
+}
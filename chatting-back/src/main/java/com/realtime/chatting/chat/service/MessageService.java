@@ -1,16 +1,21 @@
 package com.realtime.chatting.chat.service;
 
 import java.time.Instant;
-import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.realtime.chatting.ai.service.AiChatService;
 import com.realtime.chatting.chat.dto.AttachmentDto;
-import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.chat.repository.ChatRoomLastMessageRepository;
+import com.realtime.chatting.chat.repository.ChatRoomRepository;
+import com.realtime.chatting.chat.repository.projection.MessageRow;
+import com.realtime.chatting.chat.dto.MessagePage;
+import com.realtime.chatting.common.id.IdGenerator;
 import com.realtime.chatting.storage.repository.ChatAttachmentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
@@ -24,28 +29,155 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 public class MessageService {
+    private static final int RANGE_MAX = 200;
+
     private final ChatMessageRepository messageRepo;
-    private final ChatRoomMemberRepository memberRepo;
+    private final RoomMembershipCache membership;
     private final ChatAttachmentRepository attachmentRepo;
+    private final ChatMessageBatchWriter batchWriter;
+    private final IdGenerator idGenerator;
+    private final ChatRoomRepository roomRepo;
+    private final RecentMessageCache recentCache;
+    private final ChatRoomLastMessageRepository lastMessageRepo;
+    private final MessageHistoryReader historyReader;
+    private final MeterRegistry meterRegistry;
+
+    // jdbc: 메시지+첨부 한 번의 JOIN, 엔티티 없이 DTO 조립 | jpa: 엔티티/프로젝션 + 첨부 IN 조회
+    @Value("${chat.history.read-path:jdbc}")
+    private String readPath;
 
     @Transactional(readOnly = true)
     public List<MessageDto> history(String roomId, int limit, @Nullable Instant before) {
         int capped = Math.min(200, Math.max(1, limit));
 
-        // DESC(최신 먼저), tie-breaker로 id도 같이 정렬하여 안정화
-        var sort = Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "id"));
-        var page = PageRequest.of(0, capped, sort);
+        // 첫 페이지는 최근 메시지 캐시 우선 (방 last_seq/content_version 으로 신선도 확인, 부족분만 DB)
+        if (before == null && recentCache.covers(capped)) {
+            var version = roomRepo.findCacheVersion(roomId).orElse(null);
+            if (version != null) {
+                List<MessageDto> cached = recentCache.latest(roomId, capped, version.getLastSeq(), version.getContentVersion(),
+                        n -> newest(roomId, n, null),
+                        (from, to) -> range(roomId, from, to));
+                if (cached != null) return cached;
+            }
+        }
+        return newest(roomId, capped, before);
+    }
+
+    /** DB에서 before 이전(없으면 최신) capped 건을 오래된 순으로 */
+    private List<MessageDto> newest(String roomId, int capped, @Nullable Instant before) {
+        if (jdbcPath()) {
+            return timed(() -> before == null
+                    ? historyReader.latest(roomId, capped)
+                    : historyReader.before(roomId, before, Long.MIN_VALUE, capped));
+        }
+        var page = PageRequest.of(0, capped);
+        return timedJpa(() -> {
+            // DESC(최신 먼저, (createdAt, id) 키셋) — before 는 밀리초라 같은 시각 전체를 제외
+            List<MessageRow> rowsDesc = (before == null)
+                    ? messageRepo.findLatestRows(roomId, page)
+                    : messageRepo.findRowsBefore(roomId, before, Long.MIN_VALUE, page);
+
+            // 프론트가 과거→현재(ASC)로 그리므로 뒤집어서 반환 (정렬 없이 역순만)
+            List<MessageRow> rowsAsc = new ArrayList<>(rowsDesc);
+            Collections.reverse(rowsAsc);
+            return toDtos(rowsAsc);
+        });
+    }
+
+    /**
+     * 키셋 페이지 (양방향)
+     * - cursor 없음: 최신 페이지 (최근 메시지 캐시 경유)
+     * - direction=older: 커서보다 오래된 limit 건, newer: 커서보다 최근 limit 건
+     * limit+1 건을 읽어 다음 페이지 유무를 판단한다.
+     */
+    @Transactional(readOnly = true)
+    public MessagePage page(String roomId, int limit, @Nullable String cursor, @Nullable String direction) {
+        int capped = Math.min(200, Math.max(1, limit));
+        if (cursor == null || cursor.isBlank()) {
+            List<MessageDto> items = history(roomId, capped, null);
+            return pageOf(items, items.size() >= capped, false);
+        }
+
+        MessageCursor c = MessageCursor.decode(cursor);
+        boolean newer = "newer".equalsIgnoreCase(direction);
+
+        if (jdbcPath()) {
+            // limit+1 건: newer 면 마지막, older 면 (오래된 순이므로) 첫 원소가 다음 페이지 표시용
+            List<MessageDto> asc = timed(() -> newer
+                    ? historyReader.after(roomId, c.createdAt(), c.id(), capped + 1)
+                    : historyReader.before(roomId, c.createdAt(), c.id(), capped + 1));
+            boolean more = asc.size() > capped;
+            if (newer) return pageOf(more ? asc.subList(0, capped) : asc, true, more);
+            return pageOf(more ? asc.subList(1, asc.size()) : asc, more, true);
+        }
 
-        // 커서 유무로 분기
-        List<ChatMessage> msgsDesc = (before == null)
-                ? messageRepo.findByRoomIdOrderByCreatedAtDesc(roomId, page)
-                : messageRepo.findByRoomIdAndCreatedAtBeforeOrderByCreatedAtDesc(roomId, before, page);
+        var page = PageRequest.of(0, capped + 1);
 
-        if (msgsDesc.isEmpty()) return List.of();
+        if (newer) {
+            return timedJpa(() -> {
+                List<MessageRow> asc = messageRepo.findRowsAfter(roomId, c.createdAt(), c.id(), page);
+                boolean more = asc.size() > capped;
+                return pageOf(toDtos(more ? asc.subList(0, capped) : asc), true, more);
+            });
+        }
+
+        return timedJpa(() -> {
+            List<MessageRow> desc = messageRepo.findRowsBefore(roomId, c.createdAt(), c.id(), page);
+            boolean more = desc.size() > capped;
+            List<MessageRow> asc = new ArrayList<>(more ? desc.subList(0, capped) : desc);
+            Collections.reverse(asc);
+            return pageOf(toDtos(asc), more, true);
+        });
+    }
+
+    private boolean jdbcPath() {
+        return !"jpa".equalsIgnoreCase(readPath);
+    }
+
+    /** 두 경로 비교용: chat.history.read{path} */
+    private List<MessageDto> timed(Supplier<List<MessageDto>> read) {
+        return meterRegistry.timer("chat.history.read", "path", "jdbc").record(read);
+    }
+
+    private <T> T timedJpa(Supplier<T> read) {
+        return meterRegistry.timer("chat.history.read", "path", "jpa").record(read);
+    }
+
+    private static MessagePage pageOf(List<MessageDto> asc, boolean hasOlder, boolean hasNewer) {
+        if (asc.isEmpty()) return new MessagePage(asc, null, null);
+        String older = hasOlder ? MessageCursor.of(asc.get(0)).encode() : null;
+        String newer = hasNewer ? MessageCursor.of(asc.get(asc.size() - 1)).encode() : null;
+        return new MessagePage(asc, older, newer);
+    }
+
+    /**
+     * 순번 구간 (fromSeq, toSeq] 조회 — 클라이언트가 seq 누락을 감지했을 때 그 구간만 채운다.
+     * toSeq 가 없거나 구간이 너무 길면 fromSeq 뒤로 최대 200건.
+     */
+    @Transactional(readOnly = true)
+    public List<MessageDto> range(String roomId, long fromSeq, @Nullable Long toSeq) {
+        long from = Math.max(0, fromSeq);
+        long to = (toSeq == null) ? from + RANGE_MAX : Math.min(toSeq, from + RANGE_MAX);
+        if (to <= from) return List.of();
+
+        List<ChatMessage> msgs = messageRepo.findByRoomIdAndSeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(
+                roomId, from, to, PageRequest.of(0, RANGE_MAX));
+        return toDtos(msgs);
+    }
+
+    /** 증분 동기화: afterId(Snowflake 커서) 이후 메시지를 오래된 순으로 최대 limit 건 */
+    @Transactional(readOnly = true)
+    public List<MessageDto> after(String roomId, long afterId, int limit) {
+        return toDtos(messageRepo.findByRoomIdAndIdGreaterThanOrderByIdAsc(roomId, afterId, PageRequest.of(0, limit)));
+    }
+
+    /** 엔티티/프로젝션 → DTO (첨부는 messageId IN 한 번으로 모아 붙인다), 입력 순서 유지 */
+    private List<MessageDto> toDtos(List<? extends MessageRow> msgs) {
+        if (msgs.isEmpty()) return List.of();
 
         // messageId 목록 뽑기
-        List<String> mids = msgsDesc.stream()
-                .map(ChatMessage::getMessageId)
+        List<String> mids = msgs.stream()
+                .map(MessageRow::getMessageId)
                 .filter(Objects::nonNull)
                 .toList();
 
@@ -71,8 +203,7 @@ public class MessageService {
                         )
                 ));
 
-        // DTO 매핑 (현재 msgsDesc는 DESC)
-        List<MessageDto> dtosDesc = msgsDesc.stream().map(m -> MessageDto.builder()
+        return msgs.stream().map(m -> MessageDto.builder()
                 .id(m.getId())
                 .roomId(m.getRoomId())
                 // 엔티티가 String이라면 안전 파싱(잘못된 값 방지)
@@ -81,24 +212,23 @@ public class MessageService {
                 .username(m.getUsername())
                 .content(m.getContent())
                 .createdAt(m.getCreatedAt())
+                .seq(m.getSeq())
                 .attachments(grouped.getOrDefault(m.getMessageId(), List.of()))
                 .build()
         ).toList();
-
-        // 프론트가 과거→현재(ASC)로 그리므로 뒤집어서 반환
-        List<MessageDto> dtosAsc = new ArrayList<>(dtosDesc);
-        dtosAsc.sort(Comparator.comparing(MessageDto::getCreatedAt));
-        return dtosAsc;
     }
 
     // ─────────────────────────────────────────────────────────────────────────────
     //    "사람"이 보낸 메시지 저장 + 이벤트 발행 (AI 트리거)
-    //    - messageId는 서버에서 생성(UUID)
+    //    - id는 서버에서 생성(Snowflake), messageId는 그 호환 UUID 문자열
+    //    - group-commit writer가 켜져 있으면 동시 요청과 묶어 한 번에 커밋(커밋 후 반환)
     // ─────────────────────────────────────────────────────────────────────────────
-    @Transactional
-    public MessageDto createUserMessage(String roomId, String messageId, String username, String sender, String content) {
+    public MessageDto createUserMessage(String roomId, String username, String sender, String content) {
+        long id = idGenerator.nextId();
+        String messageId = IdGenerator.toCompatUuid(id).toString();
 
         ChatMessage m = ChatMessage.builder()
+                .id(id)
                 .roomId(roomId)
                 .messageId(messageId)
                 .sender(sender)
@@ -107,10 +237,8 @@ public class MessageService {
                 .createdAt(Instant.now())
                 .build();
 
-        m = messageRepo.save(m);
-
-        return MessageDto.builder()
-                .id(m.getId())
+        MessageDto dto = MessageDto.builder()
+                .id(id)
                 .roomId(roomId)
                 .messageId(UUID.fromString(messageId))
                 .sender(sender)
@@ -118,17 +246,26 @@ public class MessageService {
                 .content(content)
                 .createdAt(m.getCreatedAt())
                 .build();
+
+        // outbox 모드면 같은 트랜잭션에 팬아웃 이벤트도 함께 기록된다
+        batchWriter.write(m, dto);
+        recentCache.append(dto);
+        return dto;
     }
 
     // ─────────────────────────────────────────────────────────────────────────────
-    //    "AI"가 보낸 메시지 저장 (이벤트 발행 없음)
+    //    "AI"가 보낸 메시지 저장 (AI 트리거 없음)
     //    - agentId: 내부 식별자(예: 'ai_eng_tutor'), displayName: 사용자가 볼 이름
+    //    - AI 메시지는 첨부물 없음
     // ─────────────────────────────────────────────────────────────────────────────
-    @Transactional
     public MessageDto createAiMessage(String roomId, String agentId, String displayName, String content) {
-        String messageId = UUID.randomUUID().toString();
+        // LLM 응답은 컬럼 길이를 넘기 쉬우므로 거절 대신 잘라서 저장
+        content = truncate(content, ChatMessage.CONTENT_MAX);
+        long id = idGenerator.nextId();
+        String messageId = IdGenerator.toCompatUuid(id).toString();
 
         ChatMessage m = ChatMessage.builder()
+                .id(id)
                 .roomId(roomId)
                 .messageId(messageId)
                 .sender(agentId)          // sender에 agentId 저장
@@ -137,46 +274,62 @@ public class MessageService {
                 .createdAt(Instant.now())
                 .build();
 
-        m = messageRepo.save(m);
-
-        return MessageDto.builder()
-                .id(m.getId())
+        MessageDto dto = MessageDto.builder()
+                .id(id)
                 .roomId(roomId)
                 .messageId(UUID.fromString(messageId))
                 .sender(agentId)
                 .username(displayName)
                 .content(content)
                 .createdAt(m.getCreatedAt())
+                .attachments(List.of())
                 .build();
+
+        batchWriter.write(m, dto);
+        recentCache.append(dto);
+        return dto;
     }
 
     /** 주어진 roomIds 중 "나"가 구성원인 방만 필터링 후 각 방의 최신 메시지 1건씩 반환 */
     public List<MessageDto> lastMessagesBulk(UUID myUserId, List<String> roomIds) {
+        return lastMessages(authorizedRooms(myUserId, roomIds));
+    }
+
+    /** 멤버십 검증: roomIds 중 내가 속한 방만 */
+    public List<String> authorizedRooms(UUID myUserId, List<String> roomIds) {
         if (roomIds == null || roomIds.isEmpty()) return Collections.emptyList();
+        return membership.authorizedRooms(myUserId, roomIds);
+    }
 
-        // 멤버십 검증: 내가 속한 방만 허용
-        List<String> authorized = memberRepo.findAuthorizedRoomIds(myUserId, roomIds);
-        if (authorized.isEmpty()) return Collections.emptyList();
+    /** 방별 최신 메시지 1건 (멤버십 검증이 끝난 방 목록) */
+    public List<MessageDto> lastMessages(List<String> authorized) {
+        if (authorized == null || authorized.isEmpty()) return Collections.emptyList();
 
-        // 최신 메시지 1건/방
-        var rows = messageRepo.findLastMessagePerRoom(authorized);
+        // 방별 마지막 메시지 스냅샷 PK 조회 (writer 가 메시지와 함께 갱신)
+        var rows = lastMessageRepo.findAllById(authorized);
 
-        // DTO 매핑 (DB: DATETIME(6) → Timestamp → Instant)
         return rows.stream().map(r -> MessageDto.builder()
-                .id(r.getId())
+                .id(r.getLastId())
                 .roomId(r.getRoomId())
                 .messageId(parseUuidSafe(r.getMessageId()))
                 .sender(r.getSender())
                 .username(r.getUsername())
                 .content(r.getContent())
-                .createdAt(Optional.ofNullable(r.getCreatedAt())
-                        .map(ts -> ts.toInstant().atOffset(ZoneOffset.UTC).toInstant())
-                        .orElse(null))
+                .createdAt(r.getCreatedAt())
+                .seq(r.getSeq())
                 .build()
         ).collect(Collectors.toList());
     }
 
-    private static UUID parseUuidSafe(String s) {
+    /** max 글자(char) 이내로 자른다 — 서로게이트 쌍은 나누지 않고, 잘렸으면 끝에 … */
+    static String truncate(String s, int max) {
+        if (s == null || s.length() <= max) return s;
+        int cut = max - 1;
+        if (Character.isHighSurrogate(s.charAt(cut - 1))) cut--;
+        return s.substring(0, cut) + "…";
+    }
+
+    static UUID parseUuidSafe(String s) {
         try { return s == null ? null : UUID.fromString(s); }
         catch (Exception ignore) { return null; }
     }
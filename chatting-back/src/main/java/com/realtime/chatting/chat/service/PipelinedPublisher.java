@@ -0,0 +1,303 @@
+package com.realtime.chatting.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * publisher confirm 기반 파이프라인 발행기.
+ * - 확인(confirm) 대기 중인 발행 수를 window 로 제한. 가득 차면 max-pending 까지 대기열에 쌓고
+ *   confirm 이 돌아올 때마다 발행 스레드가 대기열을 비운다(어느 스레드도 window 를 기다리며 막히지 않음)
+ * - 대기열까지 가득 차면 즉시 false 로 완료(백프레셔) → outbox 릴레이는 다음 주기에 재시도
+ * - confirm 은 CorrelationData future 로 비동기 수신, nack/타임아웃은 max-retries 까지 재발행
+ * - 선택: 라우팅 키(방)별로 묶어 한 번에 발행(SimpleBatchingStrategy 포맷, 소비 측 컨테이너가 자동 de-batch)
+ * 반환 future 는 최종 ack 시 true, 재시도 소진 시 false 로 완료된다.
+ * 재발행된 메시지는 같은 방의 뒤 메시지보다 늦게 도착할 수 있다.
+ */
+@Component
+@Slf4j
+public class PipelinedPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final int window;
+    private final long confirmTimeoutMs;
+    private final int maxRetries;
+    private final boolean batching;
+    private final int batchSize;
+    private final int batchBufferLimit;
+    private final int maxPending;
+
+    private final Semaphore permits;
+    // window 가 빌 때까지 기다리는 발행 (재발행은 앞쪽에 넣어 먼저 나간다)
+    private final BlockingDeque<Publish> waiting = new LinkedBlockingDeque<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final Counter sent;
+    private final Counter acked;
+    private final Counter nacked;
+    private final Counter timeouts;
+    private final Counter retries;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Timer confirmLatency;
+
+    public PipelinedPublisher(
+            RabbitTemplate rabbitTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${chat.publisher.window:256}") int window,
+            @Value("${chat.publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+            @Value("${chat.publisher.max-retries:3}") int maxRetries,
+            @Value("${chat.publisher.max-pending:10000}") int maxPending,
+            @Value("${chat.publisher.batching.enabled:false}") boolean batching,
+            @Value("${chat.publisher.batching.size:32}") int batchSize,
+            @Value("${chat.publisher.batching.buffer-limit:65536}") int batchBufferLimit,
+            @Value("${chat.publisher.batching.linger-ms:5}") long lingerMs
+    ) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.window = Math.max(1, window);
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.maxPending = Math.max(0, maxPending);
+        this.batching = batching;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchBufferLimit = Math.max(1024, batchBufferLimit);
+        this.permits = new Semaphore(this.window);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-publisher");
+            t.setDaemon(true);
+            return t;
+        });
+        if (batching) {
+            long linger = Math.max(1, lingerMs);
+            scheduler.scheduleWithFixedDelay(this::releaseAllBatches, linger, linger, TimeUnit.MILLISECONDS);
+        }
+
+        this.sent = Counter.builder("chat.publish.sent").description("브로커로 내보낸 AMQP 메시지 수").register(meterRegistry);
+        this.acked = Counter.builder("chat.publish.acked").register(meterRegistry);
+        this.nacked = Counter.builder("chat.publish.nacked").register(meterRegistry);
+        this.timeouts = Counter.builder("chat.publish.timeouts").register(meterRegistry);
+        this.retries = Counter.builder("chat.publish.retries").register(meterRegistry);
+        this.failed = Counter.builder("chat.publish.failed").description("재시도 소진으로 포기한 발행").register(meterRegistry);
+        this.rejected = Counter.builder("chat.publish.rejected").description("대기열이 가득 차 바로 거절한 발행").register(meterRegistry);
+        this.confirmLatency = Timer.builder("chat.publish.confirm.latency")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.publish.inflight", inFlight, AtomicInteger::get)
+                .description("confirm 대기 중인 발행 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.publish.window", () -> this.window).register(meterRegistry);
+        Gauge.builder("chat.publish.pending", waiting, BlockingDeque::size)
+                .description("window 가 비기를 기다리는 발행 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (batching) releaseAllBatches();
+        scheduler.shutdown();
+        for (Publish p; (p = waiting.poll()) != null; ) p.complete(false);
+    }
+
+    /** 단건 발행. 배칭이 켜져 있으면 같은 라우팅 키 묶음에 합류한다. */
+    public CompletableFuture<Boolean> publish(String exchange, String routingKey, Message message) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        if (!batching) {
+            send(new Publish(exchange, routingKey, message, List.of(result)));
+            return result;
+        }
+
+        Publish[] ready = new Publish[1];
+        buffers.compute(exchange + "|" + routingKey, (k, buf) -> {
+            if (buf == null) buf = new Buffer(exchange, routingKey);
+            buf.add(message, result);
+            if (buf.messages.size() >= batchSize || buf.bytes >= batchBufferLimit) {
+                ready[0] = buf.drain();
+            }
+            return buf;
+        });
+        if (ready[0] != null) send(ready[0]);
+        return result;
+    }
+
+    /** linger 주기마다 남은 묶음을 내보내고 버퍼를 비운다(조용해진 방의 버퍼는 제거) */
+    private void releaseAllBatches() {
+        List<Publish> ready = new ArrayList<>();
+        for (String key : buffers.keySet()) {
+            buffers.computeIfPresent(key, (k, buf) -> {
+                if (!buf.messages.isEmpty()) ready.add(buf.drain());
+                return null;
+            });
+        }
+        ready.forEach(this::send);
+    }
+
+    /** window 에 자리가 있고 앞선 대기가 없으면 바로 발행, 아니면 대기열(가득 차면 거절). 막히지 않는다. */
+    private void send(Publish p) {
+        if (waiting.isEmpty() && permits.tryAcquire()) {
+            doSend(p);
+            return;
+        }
+        if (waiting.size() >= maxPending) {
+            rejected.increment();
+            log.warn("publish rejected, pending queue full: rk={} pending={}", p.routingKey(), waiting.size());
+            p.complete(false);
+            return;
+        }
+        waiting.offerLast(p);
+        // 확인 직후 자리가 비었을 수 있다
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        try {
+            scheduler.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 종료 중 — shutdown 이 남은 대기를 실패 처리
+        }
+    }
+
+    /** 발행 스레드에서 빈 자리만큼 대기열을 내보낸다 */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Publish p = waiting.pollFirst();
+            if (p == null) {
+                permits.release();
+                return;
+            }
+            doSend(p);
+        }
+    }
+
+    /** permit 을 잡은 상태에서 호출 */
+    private void doSend(Publish p) {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        CorrelationData cd = new CorrelationData();
+        try {
+            rabbitTemplate.send(p.exchange(), p.routingKey(), p.message(), cd);
+            sent.increment();
+        } catch (Exception e) {
+            log.warn("publish failed: rk={} err={}", p.routingKey(), e.toString());
+            release();
+            retryOrFail(p);
+            return;
+        }
+
+        cd.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, err) -> {
+                    release();
+                    confirmLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (err == null && confirm != null && confirm.isAck()) {
+                        acked.increment();
+                        p.complete(true);
+                        return;
+                    }
+                    if (err instanceof TimeoutException) timeouts.increment();
+                    else nacked.increment();
+                    log.warn("publish not confirmed: rk={} attempt={} reason={}",
+                            p.routingKey(), p.attempt(), err != null ? err.toString() : confirm.getReason());
+                    retryOrFail(p);
+                });
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        permits.release();
+        // confirm 콜백(커넥션 I/O 스레드)에서 직접 발행하지 않고 발행 스레드로 넘긴다
+        if (!waiting.isEmpty()) scheduleDrain();
+    }
+
+    private void retryOrFail(Publish p) {
+        if (p.attempt() >= maxRetries) {
+            failed.increment();
+            p.complete(false);
+            return;
+        }
+        retries.increment();
+        long backoff = Math.min(1000L, 50L << p.attempt());
+        Publish next = p.nextAttempt();
+        // 재발행은 대기열 맨 앞으로 (이미 받은 발행이므로 max-pending 으로 거절하지 않음)
+        try {
+            scheduler.schedule(() -> {
+                waiting.offerFirst(next);
+                drain();
+            }, backoff, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            next.complete(false);
+        }
+    }
+
+    /** 라우팅 키 하나에 대한 배칭 버퍼 (ConcurrentHashMap.compute 안에서만 접근) */
+    private static final class Buffer {
+        private final String exchange;
+        private final String routingKey;
+        private final List<Message> messages = new ArrayList<>();
+        private final List<CompletableFuture<Boolean>> waiters = new ArrayList<>();
+        private int bytes;
+
+        Buffer(String exchange, String routingKey) {
+            this.exchange = exchange;
+            this.routingKey = routingKey;
+        }
+
+        void add(Message m, CompletableFuture<Boolean> waiter) {
+            messages.add(m);
+            waiters.add(waiter);
+            bytes += Integer.BYTES + m.getBody().length;
+        }
+
+        /** 쌓인 메시지를 Spring 배치 포맷 한 건으로 조립(1건이면 그대로) */
+        Publish drain() {
+            Message out;
+            if (messages.size() == 1) {
+                out = messages.get(0);
+            } else {
+                SimpleBatchingStrategy assembler = new SimpleBatchingStrategy(messages.size(), Integer.MAX_VALUE, 0L);
+                MessageBatch batch = null;
+                for (Message m : messages) batch = assembler.addToBatch(exchange, routingKey, m);
+                out = batch.getMessage();
+            }
+            Publish p = new Publish(exchange, routingKey, out, List.copyOf(waiters));
+            messages.clear();
+            waiters.clear();
+            bytes = 0;
+            return p;
+        }
+    }
+
+    private record Publish(String exchange, String routingKey, Message message,
+                           List<CompletableFuture<Boolean>> waiters, int attempt) {
+        Publish(String exchange, String routingKey, Message message, List<CompletableFuture<Boolean>> waiters) {
+            this(exchange, routingKey, message, waiters, 0);
+        }
+
+        Publish nextAttempt() {
+            return new Publish(exchange, routingKey, message, waiters, attempt + 1);
+        }
+
+        void complete(boolean ok) {
+            waiters.forEach(w -> w.complete(ok));
+        }
+    }
+}
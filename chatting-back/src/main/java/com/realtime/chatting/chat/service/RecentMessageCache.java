@@ -0,0 +1,196 @@
+package com.realtime.chatting.chat.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realtime.chatting.chat.dto.MessageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+/**
+ * 방별 최근 메시지 링 버퍼 캐시 (첫 페이지 history 용).
+ * - 방마다 최신 capacity 건을 (seq, createdAt) 순으로 보관, 방 간 축출은 Caffeine(W-TinyLFU, 메시지 수 가중치)
+ * - 쓰기 경로(사용자/AI 메시지 저장, 첨부 추가)에서 바로 갱신
+ * - 다른 노드에서 쓴 메시지는 알 수 없으므로 조회 시 chat_rooms.last_seq 와 링의 동기화 지점(syncedSeq)을 비교해
+ *   같으면 그대로, 조금 뒤처졌으면 seq range 로 빈 구간만, 많이 뒤처졌거나 없으면 최신 페이지를 새로 적재한다.
+ * - 이미 담긴 메시지가 바뀐 경우(첨부 추가)는 chat_rooms.content_version 이 올라가므로, 링의 버전과 다르면
+ *   어느 노드에서 바뀌었든 최신 페이지를 새로 적재한다.
+ */
+@Component
+public class RecentMessageCache {
+
+    private static final Comparator<MessageDto> ORDER =
+            Comparator.comparing(MessageDto::getSeq, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+                    .thenComparing(MessageDto::getCreatedAt, Comparator.nullsFirst(Comparator.<java.time.Instant>naturalOrder()))
+                    .thenComparing(MessageDto::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+
+    private final boolean enabled;
+    private final int capacity;
+    private final Cache<String, Ring> rings;
+
+    private final Counter hits;
+    private final Counter fills;
+    private final Counter misses;
+
+    public RecentMessageCache(MeterRegistry meterRegistry,
+                              @Value("${chat.history.cache.enabled:true}") boolean enabled,
+                              @Value("${chat.history.cache.per-room:100}") int perRoom,
+                              @Value("${chat.history.cache.max-messages:20000}") long maxMessages,
+                              @Value("${chat.history.cache.expire-after-access-ms:1800000}") long expireMs) {
+        this.enabled = enabled;
+        this.capacity = Math.min(200, Math.max(1, perRoom)); // seq range 1회(최대 200건)로 채울 수 있는 크기
+        this.rings = Caffeine.newBuilder()
+                .maximumWeight(Math.max(capacity, maxMessages))
+                .weigher((String roomId, Ring r) -> Math.max(1, r.size()))
+                .expireAfterAccess(Duration.ofMillis(expireMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, rings, "chat.history.recent");
+        this.hits = Counter.builder("chat.history.cache").tag("result", "hit")
+                .description("첫 페이지를 메모리만으로 응답").register(meterRegistry);
+        this.fills = Counter.builder("chat.history.cache").tag("result", "fill")
+                .description("seq range 로 빈 구간만 채워 응답").register(meterRegistry);
+        this.misses = Counter.builder("chat.history.cache").tag("result", "miss")
+                .description("최신 페이지를 DB에서 새로 적재").register(meterRegistry);
+    }
+
+    /** 이 크기의 첫 페이지를 캐시로 응답할 수 있는지 */
+    public boolean covers(int limit) {
+        return enabled && limit <= capacity;
+    }
+
+    /**
+     * 최신 limit 건 (오래된 순)
+     * @param lastSeq DB의 chat_rooms.last_seq
+     * @param version DB의 chat_rooms.content_version
+     * @param newest  최신 n건 적재 (오래된 순)
+     * @param range   (fromSeq, toSeq] 적재
+     */
+    public List<MessageDto> latest(String roomId, int limit, long lastSeq, long version,
+                                   IntFunction<List<MessageDto>> newest,
+                                   BiFunction<Long, Long, List<MessageDto>> range) {
+        Ring ring = rings.getIfPresent(roomId);
+        long synced = (ring == null) ? -1 : ring.syncedSeq();
+
+        if (ring == null || ring.version() != version || lastSeq - synced > capacity) {
+            misses.increment();
+            List<MessageDto> loaded = newest.apply(capacity);
+            Ring fresh = new Ring(capacity, loaded, lastSeq, version, loaded.size() < capacity);
+            rings.asMap().compute(roomId, (k, old) -> {
+                // 적재하는 사이 쓰기 경로가 새 메시지를 붙였으면 그 내용도 합친다 (이미 있는 id 는 새 적재분 우선)
+                if (old != null) fresh.mergeFrom(old);
+                return fresh;
+            });
+            return fresh.latest(limit);
+        }
+
+        if (synced < lastSeq) {
+            fills.increment();
+            List<MessageDto> gap = range.apply(synced, lastSeq);
+            rings.asMap().computeIfPresent(roomId, (k, r) -> {
+                r.addAll(gap, lastSeq);
+                return r; // 가중치 재계산
+            });
+        } else {
+            hits.increment();
+        }
+        return ring.latest(limit);
+    }
+
+    /** 쓰기 경로: 이미 캐시된 방이면 새 메시지를 붙인다 (캐시에 없는 방은 다음 조회 때 적재) */
+    public void append(MessageDto m) {
+        if (!enabled || m == null || m.getRoomId() == null) return;
+        rings.asMap().computeIfPresent(m.getRoomId(), (k, r) -> {
+            r.addAll(List.of(m), -1);
+            return r;
+        });
+    }
+
+    /** 쓰기 경로: 첨부 추가 등으로 바뀐 메시지를 교체 (링에 없으면 무시) */
+    public void replace(MessageDto m) {
+        if (!enabled || m == null || m.getRoomId() == null) return;
+        rings.asMap().computeIfPresent(m.getRoomId(), (k, r) -> {
+            r.replace(m);
+            return r;
+        });
+    }
+
+    /** 한 방의 최근 메시지 링. 모든 접근은 this 로 동기화 */
+    private static final class Ring {
+        private final int capacity;
+        private final List<MessageDto> items;   // ORDER 순
+        private final Set<Long> ids = new HashSet<>();
+        private long syncedSeq;                  // 이 seq 까지는 빠짐없이 들어 있음
+        private final long version;              // 적재 시점의 chat_rooms.content_version
+        private boolean wholeRoom;               // 방의 전체 메시지를 담고 있음(앞쪽이 잘린 적 없음)
+
+        Ring(int capacity, List<MessageDto> asc, long syncedSeq, long version, boolean wholeRoom) {
+            this.capacity = capacity;
+            this.items = new ArrayList<>(capacity + 1);
+            this.syncedSeq = syncedSeq;
+            this.version = version;
+            this.wholeRoom = wholeRoom;
+            addAll(asc, syncedSeq);
+        }
+
+        synchronized int size() {
+            return items.size();
+        }
+
+        synchronized long syncedSeq() {
+            return syncedSeq;
+        }
+
+        long version() {
+            return version;
+        }
+
+        synchronized void addAll(List<MessageDto> msgs, long syncedUpTo) {
+            for (MessageDto m : msgs) {
+                if (m.getId() != null && !ids.add(m.getId())) continue;
+                int at = Collections.binarySearch(items, m, ORDER);
+                items.add(at < 0 ? -at - 1 : at, m);
+                // 바로 다음 seq 가 들어오면 동기화 지점 전진
+                if (m.getSeq() != null && m.getSeq() == syncedSeq + 1) syncedSeq++;
+            }
+            if (syncedUpTo > syncedSeq) syncedSeq = syncedUpTo;
+            while (items.size() > capacity) {
+                MessageDto dropped = items.remove(0);
+                ids.remove(dropped.getId());
+                wholeRoom = false;
+            }
+        }
+
+        synchronized void replace(MessageDto m) {
+            for (int i = 0; i < items.size(); i++) {
+                if (Objects.equals(items.get(i).getId(), m.getId())) {
+                    items.set(i, m);
+                    return;
+                }
+            }
+        }
+
+        synchronized void mergeFrom(Ring other) {
+            List<MessageDto> theirs;
+            synchronized (other) {
+                theirs = new ArrayList<>(other.items);
+            }
+            addAll(theirs, -1);
+        }
+
+        /** 최신 limit 건 (부족하면 방 전체를 담고 있을 때만 응답, 아니면 null) */
+        synchronized List<MessageDto> latest(int limit) {
+            if (items.size() < limit && !wholeRoom) return null;
+            int from = Math.max(0, items.size() - limit);
+            return new ArrayList<>(items.subList(from, items.size()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.realtime.chatting.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 스냅샷이 없는 방의 마지막 메시지를 chat_room_last_message 로 채우는 1회성 마이그레이션 (재실행해도 안전).
+ * 기본은 꺼져 있다 — 배포 때 한 번 chat.room-last-message.backfill=true 로 띄우고 다시 끈다.
+ * - 방 id 순으로 rooms-per-chunk 개씩 끊어 문장마다 따로 커밋한다(긴 잠금/전체 스캔 없음).
+ * - 방마다 (room_id, created_at, id) 인덱스로 마지막 한 건만 찾는다.
+ * 이미 있는 행은 건드리지 않으므로(INSERT IGNORE) 동시에 writer 가 넣은 최신 값이 덮이지 않는다.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1) // InboxBackfill 보다 먼저
+@Slf4j
+public class RoomLastMessageBackfill implements ApplicationRunner {
+
+    private static final String NEXT_ROOMS = "SELECT id FROM chat_rooms WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String BACKFILL = """
+            INSERT IGNORE INTO chat_room_last_message
+                   (room_id, last_id, message_id, sender, username, content, created_at, seq)
+            SELECT m.room_id, m.id, m.message_id, m.sender, m.username, m.content, m.created_at, m.seq
+              FROM chat_rooms r
+              JOIN chat_messages m
+                ON m.id = (SELECT m2.id FROM chat_messages m2
+                            WHERE m2.room_id = r.id
+                            ORDER BY m2.created_at DESC, m2.id DESC
+                            LIMIT 1)
+             WHERE r.id BETWEEN ? AND ?
+               AND NOT EXISTS (SELECT 1 FROM chat_room_last_message s WHERE s.room_id = r.id)
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final int roomsPerChunk;
+
+    public RoomLastMessageBackfill(JdbcTemplate jdbc,
+                                   @Value("${chat.room-last-message.backfill:false}") boolean enabled,
+                                   @Value("${chat.backfill.rooms-per-chunk:500}") int roomsPerChunk) {
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.roomsPerChunk = Math.max(1, roomsPerChunk);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        try {
+            int rooms = 0;
+            String after = "";
+            while (true) {
+                List<String> chunk = jdbc.queryForList(NEXT_ROOMS, String.class, after, roomsPerChunk);
+                if (chunk.isEmpty()) break;
+                after = chunk.get(chunk.size() - 1);
+                rooms += jdbc.update(BACKFILL, chunk.get(0), after);
+                if (chunk.size() < roomsPerChunk) break;
+            }
+            log.info("room last-message backfill done: rooms={}", rooms);
+        } catch (Exception e) {
+            log.warn("room last-message backfill failed: {}", e.toString());
+        }
+    }
+}
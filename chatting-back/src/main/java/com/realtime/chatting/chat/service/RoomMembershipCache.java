@@ -0,0 +1,167 @@
+package com.realtime.chatting.chat.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 방 → 멤버 UUID 집합 캐시 (팬아웃 대상 / 멤버 권한 확인용).
+ * - 멤버 집합은 UUID 상·하위 64비트를 정렬된 long[] 두 개로 보관(이진 탐색), 객체 오버헤드 없음
+ * - RoomService 의 멤버 추가/승격 시 커밋 이후 무효화. 다른 노드의 변경은 expire-after-write 안에 반영된다.
+ * - "멤버 아님" 판정은 단건 exists 쿼리로 한 번 더 확인해(새로 초대된 사용자) 오래된 캐시 때문에 거부하지 않는다.
+ *   멤버로 확인된 경우에만 캐시를 다시 적재하므로, 없는 방 id(잘못된 구독 등)가 캐시를 채우거나 비우지 않는다.
+ */
+@Component
+public class RoomMembershipCache {
+
+    private final ChatRoomMemberRepository memberRepo;
+    private final Cache<String, Members> rooms;
+
+    public RoomMembershipCache(ChatRoomMemberRepository memberRepo,
+                               MeterRegistry meterRegistry,
+                               @Value("${chat.membership.cache.max-rooms:50000}") long maxRooms,
+                               @Value("${chat.membership.cache.expire-after-write-ms:30000}") long expireMs) {
+        this.memberRepo = memberRepo;
+        this.rooms = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxRooms))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, expireMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rooms, "chat.membership");
+    }
+
+    /** 방 참여자 UUID 목록 (팬아웃용) */
+    public List<UUID> members(String roomId) {
+        return load(roomId).toList();
+    }
+
+    /** 참여자 수 (목록을 만들지 않음) */
+    public int memberCount(String roomId) {
+        return load(roomId).size();
+    }
+
+    public boolean isMember(String roomId, UUID userId) {
+        if (roomId == null || userId == null) return false;
+        Members cached = rooms.getIfPresent(roomId);
+        if (cached != null && cached.contains(userId)) return true;
+        // 캐시에 없거나 음성: 멤버 전체를 읽지 않고 단건으로 확인 (다른 노드에서 방금 합류했을 수 있음)
+        if (!memberRepo.existsByRoomIdAndUserId(roomId, userId)) return false;
+        // 멤버 맞음 → 캐시가 옛 값이거나 비어 있으므로 다시 적재
+        if (cached != null) rooms.invalidate(roomId);
+        load(roomId);
+        return true;
+    }
+
+    /** 멤버가 아니면 403 */
+    public void requireMember(String roomId, UUID userId) {
+        if (roomId == null || roomId.isBlank() || !isMember(roomId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not a member of this room");
+        }
+    }
+
+    /** roomIds 중 userId 가 속한 방만 (입력 순서 유지, 없는 방은 한 번의 쿼리로 적재) */
+    public List<String> authorizedRooms(UUID userId, Collection<String> roomIds) {
+        if (roomIds == null || roomIds.isEmpty()) return List.of();
+        Map<String, Members> loaded = rooms.getAll(new LinkedHashSet<>(roomIds), this::loadAll);
+        List<String> out = new ArrayList<>();
+        for (String roomId : roomIds) {
+            Members m = loaded.get(roomId);
+            if (m != null && m.contains(userId) && !out.contains(roomId)) out.add(roomId);
+        }
+        return out;
+    }
+
+    /** 멤버 구성 변경: 트랜잭션 중이면 커밋 이후에 비운다 (커밋 전 재적재로 옛 값이 남지 않도록) */
+    public void invalidate(String roomId) {
+        rooms.invalidate(roomId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    rooms.invalidate(roomId);
+                }
+            });
+        }
+    }
+
+    private Members load(String roomId) {
+        return rooms.get(roomId, id -> Members.of(memberRepo.findParticipantIds(id)));
+    }
+
+    private Map<String, Members> loadAll(Set<? extends String> roomIds) {
+        Map<String, List<UUID>> grouped = new HashMap<>();
+        for (var row : memberRepo.findParticipantsOfRooms(new ArrayList<>(roomIds))) {
+            grouped.computeIfAbsent(row.getRoomId(), k -> new ArrayList<>()).add(row.getUserId());
+        }
+        Map<String, Members> out = new HashMap<>(roomIds.size() * 2);
+        for (String roomId : roomIds) out.put(roomId, Members.of(grouped.getOrDefault(roomId, List.of())));
+        return out;
+    }
+
+    /** 정렬된 (msb, lsb) 쌍 배열 */
+    static final class Members {
+        private final long[] msb;
+        private final long[] lsb;
+
+        private Members(long[] msb, long[] lsb) {
+            this.msb = msb;
+            this.lsb = lsb;
+        }
+
+        static Members of(Collection<UUID> ids) {
+            UUID[] sorted = ids.stream().filter(Objects::nonNull).distinct().sorted(ORDER).toArray(UUID[]::new);
+            long[] msb = new long[sorted.length];
+            long[] lsb = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                msb[i] = sorted[i].getMostSignificantBits();
+                lsb[i] = sorted[i].getLeastSignificantBits();
+            }
+            return new Members(msb, lsb);
+        }
+
+        boolean contains(UUID id) {
+            if (id == null) return false;
+            long hi = id.getMostSignificantBits();
+            long lo = id.getLeastSignificantBits();
+            int low = 0, high = msb.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int c = compare(msb[mid], lsb[mid], hi, lo);
+                if (c < 0) low = mid + 1;
+                else if (c > 0) high = mid - 1;
+                else return true;
+            }
+            return false;
+        }
+
+        int size() {
+            return msb.length;
+        }
+
+        List<UUID> toList() {
+            List<UUID> out = new ArrayList<>(msb.length);
+            for (int i = 0; i < msb.length; i++) out.add(new UUID(msb[i], lsb[i]));
+            return out;
+        }
+
+        private static final Comparator<UUID> ORDER = (a, b) -> compare(
+                a.getMostSignificantBits(), a.getLeastSignificantBits(),
+                b.getMostSignificantBits(), b.getLeastSignificantBits());
+
+        private static int compare(long hi1, long lo1, long hi2, long lo2) {
+            int c = Long.compare(hi1, hi2);
+            return c != 0 ? c : Long.compare(lo1, lo2);
+        }
+    }
+}
@@ -17,14 +17,17 @@ import lombok.RequiredArgsConstructor;
 public class RoomReadService {
     private final ChatRoomMemberRepository memberRepo;
     private final ChatRoomRepository roomRepo; // 방 타입 확인용 (DM만 peer 조회)
+    private final UnreadCounterService unreadCounter;
+    private final ChangeLogService changeLog;
 
     @Transactional
     public ReadAck markRead(String roomId, String me /* UUID 문자열 */) {
         final UUID meId = UUID.fromString(me);
 
-        // 1) 내 unread 0으로 (업데이트 결과로 ok 판단)
-        final int updated = memberRepo.resetUnread(roomId, meId);
+        // 1) 내 unread 0으로 (대기 중인 증분도 함께 폐기, 업데이트 결과로 ok 판단)
+        final int updated = unreadCounter.reset(roomId, meId);
         final boolean ok = updated > 0;
+        if (ok) changeLog.read(roomId, meId);
 
         // 2) DM일 때만 peerId 조회 (그 외에는 null)
         String peerId = null;
@@ -5,10 +5,14 @@ import com.realtime.chatting.chat.dto.RoomDto;
 import com.realtime.chatting.chat.entity.ChatRoom;
 import com.realtime.chatting.chat.entity.ChatRoomMember;
 import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.chat.repository.ChatRoomMemberRepository.MemberRow;
 import com.realtime.chatting.chat.repository.ChatRoomRepository;
+import com.realtime.chatting.common.id.IdGenerator;
 import com.realtime.chatting.friend.service.FriendService;
+import com.realtime.chatting.login.dto.UserProfile;
 import com.realtime.chatting.login.entity.User;
 import com.realtime.chatting.login.repository.UserRepository;
+import com.realtime.chatting.login.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -27,37 +31,45 @@ public class RoomService {
     private final ChatRoomMemberRepository memberRepo;
     private final UserRepository userRepo;
     private final FriendService friendService;
-
-    /** meId: Authentication.name (UUID 문자열) */
+    private final IdGenerator idGenerator;
+    private final ChangeLogService changeLog;
+    private final InboxService inbox;
+    private final RoomMembershipCache membership;
+    private final UserProfileCache profiles;
+
+    /**
+     * meId: Authentication.name (UUID 문자열)
+     * 방 수와 무관하게 쿼리 2번: 내 방 목록 + 그 방들의 멤버(사용자 컬럼 포함)
+     */
+    @Transactional(readOnly = true)
     public List<RoomDto> myRooms(String meId) {
         UUID uid = UUID.fromString(meId);
-        User me = userRepo.findById(uid).orElseThrow();
 
-        return memberRepo.findByUser(me).stream()
-            .map(ChatRoomMember::getRoom)
+        List<ChatRoom> rooms = memberRepo.findRoomsOf(uid);
+        if (rooms.isEmpty()) return List.of();
+
+        Map<String, List<MemberRow>> membersByRoom = memberRepo.findMembersOfRoomsOf(uid).stream()
+                .collect(Collectors.groupingBy(MemberRow::getRoomId, LinkedHashMap::new, Collectors.toList()));
+
+        return rooms.stream()
             .distinct()
             .map(r -> {
+                List<MemberRow> members = membersByRoom.getOrDefault(r.getId(), List.of());
+
                 // 모든 멤버(UUID로 문자열화)
-                List<String> memberStrings = memberRepo.findByRoom(r).stream()
-                        .map(mm -> mm.getUser().getId().toString())
+                List<String> memberStrings = members.stream()
+                        .map(mm -> mm.getUserId().toString())
                         .collect(Collectors.toList());
 
                 // title 계산
-                String title = null;
+                String title;
                 if (r.getType() == ChatRoom.Type.DM) {
                     // DM이면 '상대'의 username을 title에 넣는다
-                    var peers = memberRepo.findByRoom(r);
-                    var peer = peers.stream()
-                            .map(ChatRoomMember::getUser)
-                            .filter(u -> !u.getId().equals(uid))
+                    title = members.stream()
+                            .filter(mm -> !mm.getUserId().equals(uid))
                             .findFirst()
-                            .orElse(null);
-
-                    if (peer != null) {
-                        title = peer.getUsername();
-                    } else {
-                        title = "방 제목 없음"; // 안전망
-                    }
+                            .map(MemberRow::getUsername)
+                            .orElse("방 제목 없음"); // 안전망
                 } else {
                     title = (r.getTitle() != null && !r.getTitle().isBlank()) ? r.getTitle() : null;
                 }
@@ -68,12 +80,13 @@ public class RoomService {
                         .createdAt(r.getCreatedAt())
                         .members(memberStrings)
                         .title(title)
+                        .largeTier(r.isLargeTier())
                         .build();
             })
             .collect(Collectors.toList());
     }
 
-    /** 방 단건 조회: 요청자가 멤버인지 확인 후 RoomDto 반환 */
+    /** 방 단건 조회: 요청자가 멤버인지 확인 후 RoomDto 반환 (쿼리 2번: 방 + 멤버) */
     @Transactional(readOnly = true)
     public RoomDto getRoomForMember(UUID myId, String roomId) {
         if (roomId == null || roomId.isBlank()) {
@@ -83,34 +96,30 @@ public class RoomService {
         ChatRoom room = roomRepo.findById(roomId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "room not found"));
 
-        User me = userRepo.findById(myId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "me not found"));
+        List<MemberRow> members = memberRepo.findMembersOfRoom(roomId);
 
-        boolean iAmMember = memberRepo.findByRoomAndUser(room, me).isPresent();
+        boolean iAmMember = members.stream().anyMatch(mm -> mm.getUserId().equals(myId));
         if (!iAmMember) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not a member of this room");
         }
 
         // 멤버 목록(email 있으면 email, 없으면 UUID 문자열) — InviteModal에서 비교에 사용
-        List<String> memberStrings = memberRepo.findByRoom(room).stream()
+        List<String> memberStrings = members.stream()
                 .map(mm -> {
-                    String email = mm.getUser().getEmail();
-                    return (email != null && !email.isBlank()) ? email : mm.getUser().getId().toString();
+                    String email = mm.getEmail();
+                    return (email != null && !email.isBlank()) ? email : mm.getUserId().toString();
                 })
                 .toList();
 
         // 타이틀: DM이면 상대 username, GROUP이면 저장된 title(없으면 null)
         String title;
         if (room.getType() == ChatRoom.Type.DM) {
-            var peers = memberRepo.findByRoom(room);
-            var peer = peers.stream()
-                    .map(ChatRoomMember::getUser)
-                    .filter(u -> !u.getId().equals(myId))
+            title = members.stream()
+                    .filter(mm -> !mm.getUserId().equals(myId))
                     .findFirst()
-                    .orElse(null);
-            title = (peer != null && peer.getUsername() != null && !peer.getUsername().isBlank())
-                    ? peer.getUsername()
-                    : "방 제목 없음";
+                    .map(MemberRow::getUsername)
+                    .filter(name -> !name.isBlank())
+                    .orElse("방 제목 없음");
         } else {
             title = (room.getTitle() != null && !room.getTitle().isBlank()) ? room.getTitle() : null;
         }
@@ -121,12 +130,13 @@ public class RoomService {
                 .createdAt(room.getCreatedAt())
                 .members(memberStrings)
                 .title(title)
+                .largeTier(room.isLargeTier())
                 .build();
     }
 
     @Transactional
     public RoomDto createGroupRoom(UUID creatorId, String title, List<UUID> inviteeIds) {
-        String roomId = UUID.randomUUID().toString();
+        String roomId = idGenerator.nextCompatId(); // 시간순 ID의 UUID 호환 문자열
         ChatRoom room = ChatRoom.builder()
                 .id(roomId)
                 .type(ChatRoom.Type.GROUP)
@@ -140,25 +150,34 @@ public class RoomService {
         all.add(creatorId);
         if (inviteeIds != null) all.addAll(inviteeIds);
 
-        List<User> users = userRepo.findAllById(all);
-        Map<UUID, User> byId = users.stream().collect(Collectors.toMap(User::getId, u -> u, (a, b) -> a));
+        // 존재 확인/표시 정보는 프로필 캐시, 멤버 행에는 참조(프록시)만 건다
+        Map<UUID, UserProfile> byId = profiles.getAll(all);
 
         for (UUID uid : all) {
-            User u = byId.get(uid);
-            if (u == null) continue;
+            if (!byId.containsKey(uid)) continue;
+            User u = userRepo.getReferenceById(uid);
             ChatRoom finalRoom = room;
             memberRepo.findByRoomAndUser(room, u)
-                    .orElseGet(() -> memberRepo.save(
-                            ChatRoomMember.builder()
-                                    .room(finalRoom)
-                                    .user(u)
-                                    .joinedAt(Instant.now())
-                                    .build()
-                    ));
+                    .orElseGet(() -> {
+                        changeLog.memberJoined(finalRoom.getId(), u.getId());
+                        inbox.joined(finalRoom.getId(), u.getId(), finalRoom.getType(),
+                                blankToNull(finalRoom.getTitle()), finalRoom.getCreatedAt());
+                        return memberRepo.save(
+                                ChatRoomMember.builder()
+                                        .room(finalRoom)
+                                        .user(u)
+                                        .joinedAt(Instant.now())
+                                        .lastReadSeq(finalRoom.getLastSeq())
+                                        .build());
+                    });
         }
 
-        List<String> memberStrings = users.stream()
-                .map(u -> (u.getEmail() != null && !u.getEmail().isBlank()) ? u.getEmail() : u.getId().toString())
+        membership.invalidate(room.getId());
+
+        List<String> memberStrings = all.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(u -> (u.email() != null && !u.email().isBlank()) ? u.email() : u.id().toString())
                 .toList();
 
         return RoomDto.builder()
@@ -175,8 +194,8 @@ public class RoomService {
     public RoomDto openDmById(UUID meId, UUID otherId) {
         if (meId.equals(otherId)) throw new IllegalArgumentException("cannot dm yourself");
 
-        User meU = userRepo.findById(meId).orElseThrow();
-        User otU = userRepo.findById(otherId).orElseThrow();
+        UserProfile meP = profiles.get(meId).orElseThrow();
+        UserProfile otP = profiles.get(otherId).orElseThrow();
 
         String a = meId.toString();
         String b = otherId.toString();
@@ -184,9 +203,7 @@ public class RoomService {
         String roomId = UUID.nameUUIDFromBytes(key.getBytes()).toString();
 
         // '나'의 관점에서 title은 "상대 username"
-        String title = (otU.getUsername() != null && !otU.getUsername().isBlank())
-                ? otU.getUsername()
-                : (otU.getEmail() != null && !otU.getEmail().isBlank() ? otU.getEmail() : otU.getId().toString());
+        String title = otP.displayName();
 
         ChatRoom room = roomRepo.findById(roomId).orElseGet(() -> {
             ChatRoom nr = ChatRoom.builder()
@@ -198,8 +215,13 @@ public class RoomService {
             return roomRepo.save(nr);
         });
 
-        ensureMember(room, meU);
-        ensureMember(room, otU);
+        ensureMember(room, userRepo.getReferenceById(meId));
+        ensureMember(room, userRepo.getReferenceById(otherId));
+        if (room.getType() == ChatRoom.Type.DM) {
+            // 인박스 제목은 각자에게 '상대' 이름
+            inbox.retitle(room.getId(), meId, dmTitleOf(otP));
+            inbox.retitle(room.getId(), otherId, dmTitleOf(meP));
+        }
 
         return RoomDto.builder()
                 .id(room.getId())
@@ -212,9 +234,17 @@ public class RoomService {
 
     private void ensureMember(ChatRoom room, User user) {
         memberRepo.findByRoomAndUser(room, user)
-                .orElseGet(() -> memberRepo.save(
-                        ChatRoomMember.builder().room(room).user(user).build()
-                ));
+                .orElseGet(() -> {
+                    changeLog.memberJoined(room.getId(), user.getId());
+                    membership.invalidate(room.getId());
+                    // DM 제목은 openDmById 가 상대별로 채운다
+                    inbox.joined(room.getId(), user.getId(), room.getType(),
+                            room.getType() == ChatRoom.Type.GROUP ? blankToNull(room.getTitle()) : null,
+                            Instant.now());
+                    return memberRepo.save(
+                            // 합류 이전 메시지는 미읽음으로 치지 않는다
+                            ChatRoomMember.builder().room(room).user(user).lastReadSeq(room.getLastSeq()).build());
+                });
     }
 
     /* ===================== 초대 로직 ===================== */
@@ -228,12 +258,8 @@ public class RoomService {
         ChatRoom room = roomRepo.findById(roomId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "room not found"));
 
-        User me = userRepo.findById(myId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "me not found"));
-
-        // 초대자는 방 멤버여야 함
-        boolean iAmMember = memberRepo.findByRoomAndUser(room, me).isPresent();
-        if (!iAmMember) {
+        // 초대자는 방 멤버여야 함 (멤버십 캐시)
+        if (!membership.isMember(roomId, myId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "not a member of this room");
         }
 
@@ -247,9 +273,7 @@ public class RoomService {
                 .toList();
 
         // 이미 멤버의 set
-        Set<UUID> memberIds = memberRepo.findByRoom(room).stream()
-                .map(m -> m.getUser().getId())
-                .collect(Collectors.toSet());
+        Set<UUID> memberIds = new HashSet<>(memberRepo.findParticipantIds(roomId));
 
         List<String> invited = new ArrayList<>();
         List<String> alreadyMembers = new ArrayList<>();
@@ -299,11 +323,22 @@ public class RoomService {
         if (room.getType() == ChatRoom.Type.DM && memberIds.size() >= 3) {
             room.setType(ChatRoom.Type.GROUP);
             roomRepo.save(room);
+            changeLog.room(room.getId());
+            inbox.roomChanged(room.getId(), room.getType(), blankToNull(room.getTitle()));
         }
+        if (!invited.isEmpty()) membership.invalidate(room.getId());
 
         return new InviteResponse(invited, alreadyMembers, notFound, failed);
     }
 
+    private static String dmTitleOf(UserProfile peer) {
+        return (peer.username() != null && !peer.username().isBlank()) ? peer.username() : InboxService.NO_TITLE;
+    }
+
+    private static String blankToNull(String s) {
+        return (s != null && !s.isBlank()) ? s : null;
+    }
+
     private Optional<User> resolveUser(String identifier) {
         // UUID 우선 판별
         UUID asUuid = tryParseUuid(identifier);
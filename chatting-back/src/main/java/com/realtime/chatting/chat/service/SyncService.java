@@ -0,0 +1,159 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.chat.dto.RoomDto;
+import com.realtime.chatting.chat.dto.SyncResponse;
+import com.realtime.chatting.chat.entity.ChatChangeLog.Kind;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import com.realtime.chatting.common.id.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+
+/**
+ * 재접속 클라이언트용 증분 동기화.
+ * - 커서(Snowflake id) 이후의 chat_change_log 만 읽어 바뀐 방/새 메시지/미읽음을 한 번에 돌려준다.
+ * - ID 발급 후 커밋까지 시차가 있으므로 다음 커서는 (현재 - commit-lag) 시점으로 잡는다.
+ *   → 마지막 구간은 다음 동기화에서 한 번 더 내려갈 수 있다(클라이언트는 messageId 로 중복 제거).
+ */
+@Service
+@Slf4j
+public class SyncService {
+
+    // 두 범위를 OR 로 묶으면 인덱스를 못 타므로 따로 읽어 id 순으로 합친다
+    // 나에게만 보이는 변경: ix_change_log_user (user_id, id)
+    private static final String SELECT_USER_CHANGES = """
+            SELECT id, room_id, kind
+              FROM chat_change_log
+             WHERE user_id = ? AND id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+    // 내 방의 방 단위 변경: 방마다 ix_change_log_room_scope (room_id, user_id, id) 범위
+    private static final String SELECT_ROOM_CHANGES = """
+            SELECT cl.id, cl.room_id, cl.kind
+              FROM chat_room_members rm
+              JOIN chat_change_log cl
+                ON cl.room_id = rm.room_id AND cl.user_id IS NULL AND cl.id > ?
+             WHERE rm.user_id = ?
+             ORDER BY cl.id
+             LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final IdGenerator idGenerator;
+    private final ChangeLogService changeLog;
+    private final RoomService roomService;
+    private final MessageService messageService;
+    private final UnreadCounterService unreadCounter;
+
+    private final long commitLagMs;
+    private final int maxChanges;
+    private final int messagesPerRoom;
+
+    public SyncService(JdbcTemplate jdbc,
+                       IdGenerator idGenerator,
+                       ChangeLogService changeLog,
+                       RoomService roomService,
+                       MessageService messageService,
+                       UnreadCounterService unreadCounter,
+                       @Value("${chat.sync.commit-lag-ms:5000}") long commitLagMs,
+                       @Value("${chat.sync.max-changes:1000}") int maxChanges,
+                       @Value("${chat.sync.messages-per-room:50}") int messagesPerRoom) {
+        this.jdbc = jdbc;
+        this.idGenerator = idGenerator;
+        this.changeLog = changeLog;
+        this.roomService = roomService;
+        this.messageService = messageService;
+        this.unreadCounter = unreadCounter;
+        this.commitLagMs = commitLagMs;
+        this.maxChanges = Math.max(1, maxChanges);
+        this.messagesPerRoom = Math.max(1, messagesPerRoom);
+    }
+
+    public SyncResponse sync(UUID me, @Nullable Long since) {
+        long safe = idGenerator.floorIdAt(System.currentTimeMillis() - commitLagMs);
+        if (!changeLog.isEnabled() || since == null || !changeLog.isRetained(since)) {
+            return SyncResponse.reset(safe);
+        }
+
+        byte[] meBytes = UuidBinaryConverter.toBytes(me);
+        RowMapper<Change> mapper =
+                (rs, i) -> new Change(rs.getLong("id"), rs.getString("room_id"), Kind.valueOf(rs.getString("kind")));
+        List<Change> changes = mergeById(
+                jdbc.query(SELECT_USER_CHANGES, mapper, meBytes, since, maxChanges + 1),
+                jdbc.query(SELECT_ROOM_CHANGES, mapper, since, meBytes, maxChanges + 1),
+                maxChanges + 1);
+
+        boolean hasMore = changes.size() > maxChanges;
+        if (hasMore) changes = changes.subList(0, maxChanges);
+
+        Set<String> roomChanged = new LinkedHashSet<>();
+        Set<String> messageRooms = new LinkedHashSet<>();
+        Set<String> unreadRooms = new LinkedHashSet<>();
+        for (Change c : changes) {
+            switch (c.kind()) {
+                case ROOM, MEMBER -> roomChanged.add(c.roomId());
+                case MESSAGE -> {
+                    messageRooms.add(c.roomId());
+                    unreadRooms.add(c.roomId());
+                }
+                case READ -> unreadRooms.add(c.roomId());
+            }
+        }
+
+        // 1) 바뀐 방 (멤버가 아니게 된 방은 건너뜀)
+        List<RoomDto> rooms = new ArrayList<>(roomChanged.size());
+        for (String roomId : roomChanged) {
+            try {
+                rooms.add(roomService.getRoomForMember(me, roomId));
+            } catch (ResponseStatusException e) {
+                log.debug("sync: skip room {} ({})", roomId, e.getReason());
+            }
+        }
+
+        // 2) 방별 새 메시지 (방당 상한 + 1 로 잘림 여부 판단, 잘린 방은 seq range 로 이어받는다)
+        Map<String, List<MessageDto>> messages = new LinkedHashMap<>();
+        List<String> truncated = new ArrayList<>();
+        for (String roomId : messageRooms) {
+            List<MessageDto> list = messageService.after(roomId, since, messagesPerRoom + 1);
+            if (list.size() > messagesPerRoom) {
+                truncated.add(roomId);
+                list = list.subList(0, messagesPerRoom);
+            }
+            if (!list.isEmpty()) messages.put(roomId, list);
+        }
+
+        // 3) 바뀐 방의 현재 미읽음
+        Map<String, Long> unread = new LinkedHashMap<>();
+        if (!unreadRooms.isEmpty()) {
+            Map<String, Long> all = new HashMap<>();
+            unreadCounter.unreadPerRoom(me).forEach(p ->
+                    all.put(String.valueOf(p.getRoomId()), p.getCount() == null ? 0L : p.getCount()));
+            for (String roomId : unreadRooms) unread.put(roomId, all.getOrDefault(roomId, 0L));
+        }
+
+        long next = hasMore ? Math.min(changes.get(changes.size() - 1).id(), safe) : safe;
+        return new SyncResponse(String.valueOf(Math.max(since, next)), false, hasMore,
+                rooms, messages, truncated, unread);
+    }
+
+    /** id 순으로 정렬된 두 목록을 합쳐 앞에서 limit 개 (두 목록의 id 는 겹치지 않는다) */
+    private static List<Change> mergeById(List<Change> a, List<Change> b, int limit) {
+        List<Change> out = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0, j = 0;
+        while (out.size() < limit && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && a.get(i).id() < b.get(j).id())) out.add(a.get(i++));
+            else out.add(b.get(j++));
+        }
+        return out;
+    }
+
+    private record Change(long id, String roomId, Kind kind) {}
+}
@@ -0,0 +1,255 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.UnreadFriendDto;
+import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * 미읽음 엔진. chat.unread.model 로 두 모델 중 하나를 쓴다.
+ * - cursor: unread = chat_rooms.last_seq - chat_room_members.last_read_seq.
+ *   전송은 방 시퀀스 1회 증가(writer), 읽음은 커서 1회 쓰기뿐이라 멤버 행을 건드리지 않는다.
+ * - counter(기본): 아래 방식으로 unread_count 를 유지한다.
+ * 읽음 처리는 두 모델 값을 한 번의 UPDATE 로 함께 갱신하므로 모델 전환 시에도 값이 이어진다.
+ *
+ * counter 모델
+ * - 메시지마다 방 전체 UPDATE 를 하지 않고 사용자 → (방 → LongAdder) 버퍼에 증분만 쌓는다.
+ * - flush-ms 주기로 쌓인 증분을 JDBC batch UPDATE 한 번(한 트랜잭션)으로 반영한다.
+ * - 조회/읽음처리는 그 사용자의 항목만 떼어 먼저 반영(또는 폐기)한 뒤 DB를 보므로 값이 정확하다.
+ * 사용자 id 해시로 고른 stripe 단위 락 두 종류:
+ * - bufferLocks: 증분은 read lock, 사용자 항목 떼기는 write lock → 떼어 낸 맵에는 더 이상 쓰기가 없다
+ * - applyLocks: 떼기부터 DB 반영까지 직렬화 → 조회가 다른 스레드의 반영 중인 증분을 놓치지 않는다.
+ *   주기 flush 는 모든 stripe 를 순서대로 잡는다(조회는 하나만 잡으므로 교착 없음).
+ */
+@Service
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String FLUSH_SQL =
+            "UPDATE chat_room_members SET unread_count = unread_count + ? WHERE room_id = ? AND user_id = ?";
+    private static final int STRIPES = 64;
+    // 잠금 없는 읽기 (방 행 잠금은 writer 만 잡는다)
+    private static final String SELECT_ROOM_SEQ = "SELECT last_seq FROM chat_rooms WHERE id = ?";
+
+    private final ChatRoomMemberRepository memberRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean buffered;
+    private final boolean cursor;
+
+    // userId → (roomId → 증분)
+    private final Map<UUID, Map<String, LongAdder>> pending = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] bufferLocks = new ReentrantReadWriteLock[STRIPES];
+    private final ReentrantLock[] applyLocks = new ReentrantLock[STRIPES];
+
+    private final DistributionSummary flushRows;
+
+    public UnreadCounterService(ChatRoomMemberRepository memberRepo,
+                                JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${chat.unread.buffered:true}") boolean buffered,
+                                @Value("${chat.unread.model:counter}") String model) {
+        this.memberRepo = memberRepo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.cursor = "cursor".equalsIgnoreCase(model);
+        this.buffered = buffered && !cursor;
+        for (int i = 0; i < STRIPES; i++) {
+            bufferLocks[i] = new ReentrantReadWriteLock();
+            applyLocks[i] = new ReentrantLock();
+        }
+
+        this.flushRows = DistributionSummary.builder("chat.unread.flush.rows")
+                .description("flush 1회당 갱신한 (room, user) 행 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.unread.pending", pending, m -> m.values().stream().mapToInt(Map::size).sum())
+                .description("flush 대기 중인 (room, user) 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 보낸 사람을 제외한 참여자들의 미읽음 +1.
+     * 비버퍼 모드는 호출자 트랜잭션 안에서 UPDATE, 버퍼 모드는 호출자 트랜잭션이 커밋된 뒤에 쌓는다
+     * (브리지 재시도로 같은 메시지가 다시 처리돼도 롤백된 시도의 증분이 남지 않도록).
+     */
+    public void increment(String roomId, UUID senderId, Collection<UUID> participantIds) {
+        if (cursor) return; // 방 시퀀스는 writer 가 이미 올렸다
+        if (!buffered) {
+            memberRepo.bumpUnread(roomId, senderId);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> recipients = new ArrayList<>(participantIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer(roomId, senderId, recipients);
+                }
+            });
+            return;
+        }
+        buffer(roomId, senderId, participantIds);
+    }
+
+    private void buffer(String roomId, UUID senderId, Collection<UUID> participantIds) {
+        for (UUID uid : participantIds) {
+            if (uid == null || uid.equals(senderId)) continue;
+            add(uid, roomId, 1);
+        }
+    }
+
+    /**
+     * 읽음 처리: 아직 반영되지 않은 증분을 버리고 DB 값을 0으로.
+     * 호출자 트랜잭션 안에서 실행된다(RoomReadService.markRead).
+     */
+    public int reset(String roomId, UUID userId) {
+        long lastSeq = roomSeq(roomId);
+        if (!buffered) return memberRepo.resetUnread(roomId, userId, lastSeq);
+        ReentrantLock applyLock = applyLocks[stripe(userId)];
+        applyLock.lock();
+        try {
+            ReentrantReadWriteLock.WriteLock w = bufferLocks[stripe(userId)].writeLock();
+            w.lock();
+            try {
+                Map<String, LongAdder> rooms = pending.get(userId);
+                if (rooms != null) {
+                    rooms.remove(roomId);
+                    if (rooms.isEmpty()) pending.remove(userId);
+                }
+            } finally {
+                w.unlock();
+            }
+            return memberRepo.resetUnread(roomId, userId, lastSeq);
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private long roomSeq(String roomId) {
+        List<Long> seq = jdbc.queryForList(SELECT_ROOM_SEQ, Long.class, roomId);
+        return seq.isEmpty() || seq.get(0) == null ? 0L : seq.get(0);
+    }
+
+    /** 방 기준 미읽음 */
+    public List<ChatRoomMemberRepository.UnreadRoomProjection> unreadPerRoom(UUID userId) {
+        if (cursor) return memberRepo.findUnreadPerRoomByCursor(userId);
+        return readThrough(userId, () -> memberRepo.findUnreadPerRoom(userId));
+    }
+
+    /** DM 상대 기준 미읽음 */
+    public List<UnreadFriendDto> dmUnread(UUID userId) {
+        if (cursor) return memberRepo.findDmUnreadOfByCursor(userId);
+        return readThrough(userId, () -> memberRepo.findDmUnreadOf(userId));
+    }
+
+    public boolean isCursor() {
+        return cursor;
+    }
+
+    /**
+     * 해당 사용자의 대기 증분만 먼저 DB에 반영한 뒤 조회 → 조회 결과가 정확하다.
+     * unread_count 를 직접 읽는 다른 조회(인박스)도 이 안에서 읽어야 /api/unread 와 값이 같다.
+     */
+    public <T> T readThrough(UUID userId, Supplier<T> query) {
+        if (!buffered) return query.get();
+        ReentrantLock applyLock = applyLocks[stripe(userId)];
+        applyLock.lock();
+        try {
+            Map<Key, Long> mine = new HashMap<>();
+            drainUser(userId, mine);
+            apply(mine);
+            return query.get();
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.unread.flush-ms:300}")
+    public void flush() {
+        if (!buffered || pending.isEmpty()) return;
+        int locked = 0;
+        try {
+            for (; locked < STRIPES; locked++) applyLocks[locked].lock();
+
+            Map<Key, Long> deltas = new HashMap<>();
+            for (UUID userId : pending.keySet()) drainUser(userId, deltas);
+            apply(deltas);
+        } finally {
+            while (locked > 0) applyLocks[--locked].unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void add(UUID userId, String roomId, long delta) {
+        ReentrantReadWriteLock.ReadLock r = bufferLocks[stripe(userId)].readLock();
+        r.lock();
+        try {
+            pending.computeIfAbsent(userId, u -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(roomId, k -> new LongAdder())
+                    .add(delta);
+        } finally {
+            r.unlock();
+        }
+    }
+
+    /** 사용자 항목을 버퍼에서 떼어 out 에 합친다 */
+    private void drainUser(UUID userId, Map<Key, Long> out) {
+        Map<String, LongAdder> rooms;
+        ReentrantReadWriteLock.WriteLock w = bufferLocks[stripe(userId)].writeLock();
+        w.lock();
+        try {
+            rooms = pending.remove(userId);
+        } finally {
+            w.unlock();
+        }
+        if (rooms != null) rooms.forEach((roomId, v) -> out.put(new Key(roomId, userId), v.sum()));
+    }
+
+    /** 증분 일괄 반영, 실패 시 다음 주기에 다시 시도하도록 되돌려 놓는다 */
+    private void apply(Map<Key, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((k, d) -> {
+            if (d > 0) args.add(new Object[]{d, k.roomId(), UuidBinaryConverter.toBytes(k.userId())});
+        });
+        if (args.isEmpty()) return;
+        try {
+            tx.executeWithoutResult(s -> jdbc.batchUpdate(FLUSH_SQL, args));
+            flushRows.record(args.size());
+        } catch (Exception e) {
+            log.warn("unread flush failed (rows={}), will retry: {}", args.size(), e.toString());
+            deltas.forEach((k, d) -> {
+                if (d > 0) add(k.userId(), k.roomId(), d);
+            });
+        }
+    }
+
+    private static int stripe(UUID userId) {
+        return (userId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private record Key(String roomId, UUID userId) {}
+}
@@ -0,0 +1,64 @@
+package com.realtime.chatting.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 기존 unread_count 데이터를 커서 모델로 옮기는 1회성 백필 (재실행해도 안전).
+ * 1) 커서가 비어 있는 멤버가 있는 방: last_seq 를 저장된 메시지 수 이상으로 맞춘다.
+ * 2) 커서가 비어 있는 멤버: last_read_seq = last_seq - unread_count (0 미만이면 0)
+ *    → 전환 직후 커서 모델의 미읽음이 기존 카운터 값과 같다.
+ */
+@Component
+@Slf4j
+public class UnreadCursorBackfill implements ApplicationRunner {
+
+    private static final String BACKFILL_ROOM_SEQ = """
+            UPDATE chat_rooms r
+               SET r.last_seq = GREATEST(r.last_seq,
+                       (SELECT COUNT(*) FROM chat_messages m WHERE m.room_id = r.id))
+             WHERE EXISTS (SELECT 1 FROM chat_room_members rm
+                            WHERE rm.room_id = r.id AND rm.last_read_seq IS NULL)
+            """;
+
+    private static final String BACKFILL_MEMBER_CURSOR = """
+            UPDATE chat_room_members rm
+              JOIN chat_rooms r ON r.id = rm.room_id
+               SET rm.last_read_seq = GREATEST(r.last_seq - rm.unread_count, 0)
+             WHERE rm.last_read_seq IS NULL
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final boolean enabled;
+
+    public UnreadCursorBackfill(JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                @Value("${chat.unread.cursor-backfill:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) return;
+        try {
+            int[] counts = tx.execute(s -> new int[]{
+                    jdbc.update(BACKFILL_ROOM_SEQ),
+                    jdbc.update(BACKFILL_MEMBER_CURSOR)
+            });
+            if (counts != null && counts[1] > 0) {
+                log.info("unread cursor backfill: rooms={}, members={}", counts[0], counts[1]);
+            }
+        } catch (Exception e) {
+            log.warn("unread cursor backfill failed: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.realtime.chatting.common.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 동일 키 동시 요청 합치기(single-flight).
+ * 같은 키로 진행 중인 호출이 있으면 새로 실행하지 않고 그 결과(또는 예외)를 함께 받는다.
+ * 완료 즉시 키를 비우므로 결과를 캐시하지는 않는다 → 공유 결과는 호출자가 변경하지 않아야 한다.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    /**
+     * @param op 메트릭 태그 (chat.read.executed / chat.read.coalesced {op})
+     */
+    public SingleFlight(MeterRegistry meterRegistry, String op) {
+        this.executed = Counter.builder("chat.read.executed").tag("op", op)
+                .description("실제로 실행된 조회 수").register(meterRegistry);
+        this.coalesced = Counter.builder("chat.read.coalesced").tag("op", op)
+                .description("진행 중인 동일 조회에 합류해 실행을 생략한 요청 수").register(meterRegistry);
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            V v = loader.get();
+            mine.complete(v);
+            return v;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> f) {
+        try {
+            return f.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.realtime.chatting.common.id;
+
+import java.util.UUID;
+
+/**
+ * 시간 순으로 증가하는 64-bit ID 발급기.
+ * - 같은 노드에서 발급된 ID는 항상 단조 증가(append-only 인덱스 삽입, 페이지 커서로 직접 사용 가능)
+ * - 기존 REST/STOMP 계약(UUID 문자열)은 {@link #toCompatUuid(long)} 형식으로 유지한다.
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    /** 해당 시각(epoch ms) 이전에 발급된 모든 ID보다 크거나 같은 최소 ID — 시간 기반 커서용 */
+    long floorIdAt(long epochMillis);
+
+    /** 새 ID를 발급해 호환 문자열(UUID 형식)로 반환 */
+    default String nextCompatId() {
+        return toCompatUuid(nextId()).toString();
+    }
+
+    /**
+     * 호환 형식: 상위 64bit = ID, 하위 64bit = 0.
+     * 고정 폭 16진수라 문자열 정렬 순서도 ID 순서와 같다.
+     */
+    static UUID toCompatUuid(long id) {
+        return new UUID(id, 0L);
+    }
+
+    /** 호환 형식 UUID면 ID를, 예전(랜덤) UUID면 null 반환 */
+    static Long fromCompatUuid(UUID uuid) {
+        if (uuid == null || uuid.getLeastSignificantBits() != 0L) return null;
+        long id = uuid.getMostSignificantBits();
+        return id > 0 ? id : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.realtime.chatting.common.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Snowflake 형식 ID: [timestamp(ms, 커스텀 epoch 기준) | node | sequence]
+ * - 기본 비트 배분(41 + 5 + 7 = 53bit)은 JS Number.MAX_SAFE_INTEGER 안에 들어가
+ *   프론트에서 MessageDto.id 를 숫자로 그대로 다뤄도 정밀도가 깨지지 않는다.
+ * - 같은 ms 안에서 sequence가 넘치면 다음 ms까지 대기, 시계가 뒤로 가면 마지막 시각을 계속 사용해
+ *   노드 내 단조 증가를 보장한다.
+ */
+@Component
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /** 2025-01-01T00:00:00Z */
+    static final long DEFAULT_EPOCH_MS = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    private static final int TIMESTAMP_BITS = 41;
+
+    private final long epochMs;
+    private final int nodeBits;
+    private final int sequenceBits;
+    private final long nodeId;
+    private final long maxSequence;
+
+    private long lastTimestamp = -1L;
+    private long sequence = 0L;
+
+    public SnowflakeIdGenerator(
+            @Value("${chat.id.node-id:0}") long nodeId,
+            @Value("${chat.id.node-bits:5}") int nodeBits,
+            @Value("${chat.id.sequence-bits:7}") int sequenceBits
+    ) {
+        this(DEFAULT_EPOCH_MS, nodeId, nodeBits, sequenceBits);
+    }
+
+    SnowflakeIdGenerator(long epochMs, long nodeId, int nodeBits, int sequenceBits) {
+        if (nodeBits < 0 || sequenceBits < 1 || TIMESTAMP_BITS + nodeBits + sequenceBits > 63) {
+            throw new IllegalArgumentException("invalid snowflake bit layout: node=" + nodeBits + ", seq=" + sequenceBits);
+        }
+        long maxNode = (1L << nodeBits) - 1;
+        if (nodeId < 0 || nodeId > maxNode) {
+            throw new IllegalArgumentException("chat.id.node-id must be between 0 and " + maxNode);
+        }
+        this.epochMs = epochMs;
+        this.nodeBits = nodeBits;
+        this.sequenceBits = sequenceBits;
+        this.nodeId = nodeId;
+        this.maxSequence = (1L << sequenceBits) - 1;
+    }
+
+    @Override
+    public synchronized long nextId() {
+        long ts = Math.max(System.currentTimeMillis() - epochMs, lastTimestamp);
+
+        if (ts == lastTimestamp) {
+            sequence = (sequence + 1) & maxSequence;
+            if (sequence == 0) {
+                // 이번 ms 몫을 다 썼으면 다음 ms로 넘어간다
+                ts = nextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0L;
+        }
+        lastTimestamp = ts;
+
+        return (ts << (nodeBits + sequenceBits)) | (nodeId << sequenceBits) | sequence;
+    }
+
+    @Override
+    public long floorIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - epochMs) << (nodeBits + sequenceBits);
+    }
+
+    /** ID에서 발급 시각(epoch ms) 복원 */
+    public long timestampOf(long id) {
+        return (id >>> (nodeBits + sequenceBits)) + epochMs;
+    }
+
+    /** 시계가 같은 ms면 잠깐 대기, 뒤로 가 있으면 다음 ms를 미리 당겨 쓴다 */
+    private long nextMillis(long last) {
+        long ts = System.currentTimeMillis() - epochMs;
+        while (ts == last) {
+            Thread.onSpinWait();
+            ts = System.currentTimeMillis() - epochMs;
+        }
+        return Math.max(ts, last + 1);
+    }
+}
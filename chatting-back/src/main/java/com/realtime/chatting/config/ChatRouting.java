@@ -0,0 +1,49 @@
+package com.realtime.chatting.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 방 → 브리지 파티션 매핑.
+ * - 라우팅 키: chat.message.room.{roomId}.{partition}
+ * - 파티션 k 의 큐 chat.ws-bridge.{k} 는 chat.message.room.*.{k} 로 바인딩되고 단일 컨슈머가 소비한다.
+ *   → 같은 방은 항상 같은 큐/스레드에서 순서대로 처리되고, 처리량은 파티션 수만큼 늘어난다.
+ * - String.hashCode 는 JVM 간 동일하므로 모든 노드가 같은 파티션을 계산한다.
+ */
+@Component
+public class ChatRouting {
+
+    private final int partitions;
+
+    public ChatRouting(@Value("${chat.bridge.partitions:4}") int partitions) {
+        this.partitions = Math.max(1, partitions);
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    public int partitionOf(String roomId) {
+        return Math.floorMod(roomId.hashCode(), partitions);
+    }
+
+    public String roomRoutingKey(String roomId) {
+        return RabbitConfig.ROOM_ROUTING_PREFIX + roomId + "." + partitionOf(roomId);
+    }
+
+    public static String queueName(int partition) {
+        return RabbitConfig.WS_BRIDGE_QUEUE + "." + partition;
+    }
+
+    public static String bindingPattern(int partition) {
+        return RabbitConfig.ROOM_ROUTING_PREFIX + "*." + partition;
+    }
+
+    /** 라우팅 키에서 roomId 추출 (파티션 접미사 유무 모두 허용), 형식이 아니면 null */
+    public static String roomIdOf(String routingKey) {
+        if (routingKey == null || !routingKey.startsWith(RabbitConfig.ROOM_ROUTING_PREFIX)) return null;
+        String rest = routingKey.substring(RabbitConfig.ROOM_ROUTING_PREFIX.length());
+        int dot = rest.indexOf('.');
+        return dot < 0 ? rest : rest.substring(0, dot);
+    }
+}
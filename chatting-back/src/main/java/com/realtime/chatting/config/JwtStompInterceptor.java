@@ -31,6 +31,9 @@ public class JwtStompInterceptor implements ChannelInterceptor {
 
     private static final String BEARER = "Bearer ";
 
+    /** CONNECT 시 토큰의 name 클레임을 세션 속성에 보관 → @MessageMapping 에서 유저 조회 없이 사용 */
+    public static final String SESSION_USERNAME = "username";
+
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor acc = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
@@ -62,6 +65,11 @@ public class JwtStompInterceptor implements ChannelInterceptor {
                 Authentication authn =
                         new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
                 acc.setUser(authn);
+
+                String name = claims.get("name", String.class);
+                if (name != null && !name.isBlank() && acc.getSessionAttributes() != null) {
+                    acc.getSessionAttributes().put(SESSION_USERNAME, name);
+                }
             } catch (Exception e) {
                 log.warn("STOMP CONNECT token invalid: {}", e.getMessage());
                 // CONNECT 거부
@@ -1,37 +1,73 @@
 package com.realtime.chatting.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.classify.BinaryExceptionClassifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableRabbit
 public class RabbitConfig {
 
     public static final String CHAT_EXCHANGE = "chatExchange";
+    // 파티션 큐 접두사: chat.ws-bridge.{k}
     public static final String WS_BRIDGE_QUEUE = "chat.ws-bridge";
-    // 컨트롤러에서 chat.message.room.{roomId} 로 발행
-    public static final String ROUTING_KEY_PATTERN = "chat.message.room.*";
+    // chat.message.room.{roomId}.{partition} 로 발행 (ChatRouting)
+    public static final String ROOM_ROUTING_PREFIX = "chat.message.room.";
+    // broadcast 전달 모드: 사용자 알림을 chat.notify.user.{uid} 로 노드 큐에 재발행
+    public static final String NOTIFY_ROUTING_PREFIX = "chat.notify.user.";
+    // 대형 방 알림(/topic/rooms/{roomId}/notify): chat.notify.room.{roomId}
+    public static final String ROOM_NOTIFY_ROUTING_PREFIX = "chat.notify.room.";
+    public static final String BRIDGE_LISTENER_FACTORY = "bridgeListenerContainerFactory";
+    // 처리할 수 없는 브리지 메시지(파싱 실패, 재시도 소진 등)를 모아 두는 곳
+    public static final String WS_BRIDGE_DLX = "chat.ws-bridge.dlx";
+    public static final String WS_BRIDGE_DLQ = "chat.ws-bridge.dlq";
+
+    // 잠시 뒤 다시 하면 성공할 수 있는 DB 오류 (락 대기/데드락/커넥션 획득 실패 등)
+    private static final Map<Class<? extends Throwable>, Boolean> TRANSIENT_DB_ERRORS = Map.of(
+            TransientDataAccessException.class, true,
+            RecoverableDataAccessException.class, true,
+            CannotCreateTransactionException.class, true);
 
     @Bean
     public TopicExchange chatExchange() {
         return ExchangeBuilder.topicExchange(CHAT_EXCHANGE).durable(true).build();
     }
 
+    /** 파티션별 durable 큐 + 바인딩, 브리지 공용 DLX/DLQ */
     @Bean
-    public Queue wsBridgeQueue() {
-        return QueueBuilder.durable(WS_BRIDGE_QUEUE).build();
-    }
-
-    @Bean
-    public Binding wsBridgeBinding(Queue wsBridgeQueue, TopicExchange chatExchange) {
-        return BindingBuilder.bind(wsBridgeQueue).to(chatExchange).with(ROUTING_KEY_PATTERN);
+    public Declarables wsBridgePartitions(ChatRouting routing, TopicExchange chatExchange) {
+        List<Declarable> out = new ArrayList<>();
+        DirectExchange dlx = ExchangeBuilder.directExchange(WS_BRIDGE_DLX).durable(true).build();
+        Queue dlq = QueueBuilder.durable(WS_BRIDGE_DLQ).build();
+        out.add(dlx);
+        out.add(dlq);
+        out.add(BindingBuilder.bind(dlq).to(dlx).with(WS_BRIDGE_DLQ));
+        for (int k = 0; k < routing.partitions(); k++) {
+            Queue q = QueueBuilder.durable(ChatRouting.queueName(k)).build();
+            out.add(q);
+            out.add(BindingBuilder.bind(q).to(chatExchange).with(ChatRouting.bindingPattern(k)));
+        }
+        return new Declarables(out);
     }
 
     @Bean
@@ -54,4 +90,44 @@ public class RabbitConfig {
         f.setMessageConverter(conv);
         return f;
     }
+
+    /**
+     * 브리지 파티션 전용: 큐당 컨슈머 1개(방 단위 순서 보장), prefetch 로 처리량 조절.
+     * 실패한 메시지는 큐 앞에서 무한 재전달되지 않도록:
+     * - 일시적인 DB 오류만 컨슈머 스레드에서 max-attempts 까지 백오프 재시도, 소진되면 큐로 되돌린다
+       (ChatEventBridge 는 소켓 전달/버퍼 미읽음/알림을 커밋 뒤에만 하므로 재시도해도 중복되지 않는다)
+     * - 그 밖의 오류(파싱 실패 등)는 재시도 없이 DLQ 로 재발행(예외 정보는 x-exception-* 헤더)
+     * - 그래도 거절되는 메시지는 재큐잉하지 않는다
+     */
+    @Bean(BRIDGE_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory bridgeListenerContainerFactory(
+            ConnectionFactory cf,
+            RabbitTemplate rabbitTemplate,
+            @Value("${chat.bridge.prefetch:50}") int prefetch,
+            @Value("${chat.bridge.retry.max-attempts:3}") int maxAttempts,
+            @Value("${chat.bridge.retry.initial-interval-ms:200}") long initialIntervalMs,
+            @Value("${chat.bridge.retry.max-interval-ms:2000}") long maxIntervalMs) {
+        SimpleRabbitListenerContainerFactory f = new SimpleRabbitListenerContainerFactory();
+        f.setConnectionFactory(cf);
+        f.setConcurrentConsumers(1);
+        f.setMaxConcurrentConsumers(1);
+        f.setPrefetchCount(Math.max(1, prefetch));
+        f.setDefaultRequeueRejected(false);
+
+        BinaryExceptionClassifier transientDb = new BinaryExceptionClassifier(TRANSIENT_DB_ERRORS, false, true);
+        RepublishMessageRecoverer toDlq = new RepublishMessageRecoverer(rabbitTemplate, WS_BRIDGE_DLX, WS_BRIDGE_DLQ);
+        MessageRecoverer recoverer = (message, cause) -> {
+            if (transientDb.classify(cause)) {
+                // DB 가 돌아오면 처리되도록 유지 (재전달마다 다시 백오프 재시도하므로 폭주하지 않음)
+                throw new ImmediateRequeueAmqpException("transient db error, requeue", cause);
+            }
+            toDlq.recover(message, cause);
+        };
+        f.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .retryPolicy(new SimpleRetryPolicy(Math.max(1, maxAttempts), TRANSIENT_DB_ERRORS, true, false))
+                .backOffOptions(Math.max(1, initialIntervalMs), 2.0, Math.max(initialIntervalMs, maxIntervalMs))
+                .recoverer(recoverer)
+                .build());
+        return f;
+    }
 }
@@ -0,0 +1,58 @@
+package com.realtime.chatting.config;
+
+import com.realtime.chatting.chat.bridge.ChatDelivery;
+import com.realtime.chatting.chat.service.RoomMembershipCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * STOMP SUBSCRIBE /topic/rooms/{roomId}[/...] 는 방 멤버만 허용 (멤버십 캐시로 판정, DB 조회 없음).
+ * 멤버가 아니면 SUBSCRIBE 를 버린다(구독 미등록). ERROR 프레임은 세션 전체를 끊으므로 쓰지 않는다
+ * — 클라이언트가 예전 경로(/topic/rooms/{userId} 등)를 구독해도 연결은 유지된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomSubscribeInterceptor implements ChannelInterceptor {
+
+    private final RoomMembershipCache membership;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor acc = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (acc == null || !StompCommand.SUBSCRIBE.equals(acc.getCommand())) return message;
+
+        String dest = acc.getDestination();
+        if (dest == null || !dest.startsWith(ChatDelivery.ROOM_TOPIC)) return message;
+
+        String rest = dest.substring(ChatDelivery.ROOM_TOPIC.length());
+        int slash = rest.indexOf('/');
+        String roomId = slash < 0 ? rest : rest.substring(0, slash);
+        Principal user = acc.getUser();
+        if (user == null || roomId.isEmpty()) return deny(dest, null);
+
+        UUID userId;
+        try {
+            userId = UUID.fromString(user.getName());
+        } catch (IllegalArgumentException e) {
+            return deny(dest, user.getName());
+        }
+        if (!membership.isMember(roomId, userId)) return deny(dest, user.getName());
+        return message;
+    }
+
+    private static Message<?> deny(String dest, String user) {
+        log.debug("room subscribe ignored: dest={} user={}", dest, user);
+        return null;
+    }
+}
@@ -13,10 +13,13 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 	
 	private final JwtStompInterceptor jwtStompInterceptor;
+	private final RoomSubscribeInterceptor roomSubscribeInterceptor;
 	
 	@Autowired
-	public WebSocketConfig(JwtStompInterceptor jwtStompInterceptor) { // 생성자 주입
+	public WebSocketConfig(JwtStompInterceptor jwtStompInterceptor,
+	                       RoomSubscribeInterceptor roomSubscribeInterceptor) { // 생성자 주입
 	    this.jwtStompInterceptor = jwtStompInterceptor;
+	    this.roomSubscribeInterceptor = roomSubscribeInterceptor;
 	}
 
     @Override
@@ -35,6 +38,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     
     @Override
     public void configureClientInboundChannel(ChannelRegistration reg) {
-      reg.interceptors(jwtStompInterceptor);
+      // CONNECT 인증 → SUBSCRIBE 방 권한 순서
+      reg.interceptors(jwtStompInterceptor, roomSubscribeInterceptor);
     }
 }
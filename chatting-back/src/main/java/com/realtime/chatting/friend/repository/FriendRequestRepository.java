@@ -3,6 +3,8 @@ package com.realtime.chatting.friend.repository;
 import com.realtime.chatting.friend.entity.FriendRequest;
 import com.realtime.chatting.friend.model.FriendRequestStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +36,16 @@ public interface FriendRequestRepository extends JpaRepository<FriendRequest, Lo
             FriendRequestStatus status1, String requesterEmail,
             FriendRequestStatus status2, String receiverEmail);
 
+    /** 친구(수락된 요청의 상대편) UUID 목록 — 사용자 엔티티를 읽지 않는다 */
+    @Query("""
+           select case when fr.requester.id = :me then fr.receiver.id else fr.requester.id end
+             from FriendRequest fr
+            where fr.status = :status
+              and (fr.requester.id = :me or fr.receiver.id = :me)
+            order by fr.id
+           """)
+    List<UUID> findFriendIds(@Param("me") UUID me, @Param("status") FriendRequestStatus status);
+
     /** 수신자 기준 PENDING 개수 (표준 파생 쿼리) */
     int countByReceiver_EmailAndStatus(String receiverEmail, FriendRequestStatus status);
 
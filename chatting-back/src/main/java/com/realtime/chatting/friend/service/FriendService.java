@@ -5,8 +5,10 @@ import com.realtime.chatting.friend.dto.FriendRequestDto;
 import com.realtime.chatting.friend.entity.FriendRequest;
 import com.realtime.chatting.friend.model.FriendRequestStatus;
 import com.realtime.chatting.friend.repository.FriendRequestRepository;
+import com.realtime.chatting.login.dto.UserProfile;
 import com.realtime.chatting.login.entity.User;
 import com.realtime.chatting.login.repository.UserRepository;
+import com.realtime.chatting.login.service.UserProfileCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -16,9 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,6 +27,7 @@ public class FriendService {
 
     private final FriendRequestRepository requestRepo;
     private final UserRepository userRepo;
+    private final UserProfileCache profiles;
     private final SimpMessagingTemplate messaging;
 
     private FriendRequestDto toDto(FriendRequest fr) {
@@ -79,8 +80,8 @@ public class FriendService {
 
     /* ========== UUID → User ========= */
 
-    private User requireUser(UUID id) {
-        return userRepo.findById(id)
+    private UserProfile requireUser(UUID id) {
+        return profiles.get(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "인증이 유효하지 않습니다."));
     }
 
@@ -88,63 +89,63 @@ public class FriendService {
 
     @Transactional
     public FriendRequestDto sendRequestFlexible(UUID myUserId, String identifier) {
-        User me     = requireUser(myUserId);
+        UserProfile me     = requireUser(myUserId);
         User target = findUserByIdentifier(identifier)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "상대를 찾을 수 없습니다."));
 
-        if (Objects.equals(me.getId(), target.getId())) {
+        if (Objects.equals(me.id(), target.getId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "자기 자신에게는 보낼 수 없습니다.");
         }
-        return sendRequest(me.getEmail(), target.getEmail()); // 이메일 기반 공통로직 재사용
+        return sendRequest(me.email(), target.getEmail()); // 이메일 기반 공통로직 재사용
     }
 
     /* ========== UUID 기반 편의 API ========== */
 
     @Transactional(readOnly = true)
     public List<FriendRequestDto> incomingPendingByUserId(UUID myUserId) {
-        return incomingPending(requireUser(myUserId).getEmail());
+        return incomingPending(requireUser(myUserId).email());
     }
 
     @Transactional(readOnly = true)
     public List<FriendRequestDto> outgoingPendingByUserId(UUID myUserId) {
-        return outgoingPending(requireUser(myUserId).getEmail());
+        return outgoingPending(requireUser(myUserId).email());
     }
 
     @Transactional
     public FriendRequestDto sendRequestByUserId(UUID myUserId, UUID targetUserId) {
-        User me = requireUser(myUserId);
-        User tg = requireUser(targetUserId);
-        return sendRequest(me.getEmail(), tg.getEmail());
+        UserProfile me = requireUser(myUserId);
+        UserProfile tg = requireUser(targetUserId);
+        return sendRequest(me.email(), tg.email());
     }
 
     @Transactional
     public FriendRequestDto acceptByUserId(Long id, UUID myUserId) {
-        return accept(id, requireUser(myUserId).getEmail());
+        return accept(id, requireUser(myUserId).email());
     }
 
     @Transactional
     public FriendRequestDto declineByUserId(Long id, UUID myUserId) {
-        return decline(id, requireUser(myUserId).getEmail());
+        return decline(id, requireUser(myUserId).email());
     }
 
     @Transactional
     public void cancelByUserId(Long id, UUID myUserId) {
-        cancel(id, requireUser(myUserId).getEmail());
+        cancel(id, requireUser(myUserId).email());
     }
 
     /** 프론트 요구대로: 이메일 리스트 반환 */
     @Transactional(readOnly = true)
     public List<String> myFriendsByUserId(UUID myUserId) {
-        User me = requireUser(myUserId);
-        return myFriends(me.getEmail());
+        UserProfile me = requireUser(myUserId);
+        return myFriends(me.email());
     }
 
     /** UUID 기반 친구 여부 체크 */
     @Transactional(readOnly = true)
     public boolean areFriendsByUserId(UUID myUserId, UUID otherUserId) {
-        User me    = requireUser(myUserId);
-        User other = requireUser(otherUserId);
-        return areFriendsByEmail(me.getEmail(), other.getEmail());
+        UserProfile me    = requireUser(myUserId);
+        UserProfile other = requireUser(otherUserId);
+        return areFriendsByEmail(me.email(), other.email());
     }
 
     /* ===== email 기반 내부 로직 ===== */
@@ -258,56 +259,25 @@ public class FriendService {
                 .toList();
     }
 
-    /** 새로 추가: 이름+이메일 DTO 목록 반환 */
+    /** 새로 추가: 이름+이메일 DTO 목록 반환 (친구 id 한 번 + 프로필 캐시) */
     @Transactional(readOnly = true)
     public List<FriendBriefDto> myFriendBriefsByUserId(UUID myId) {
-        List<String> rawEmails = myFriendsByUserId(myId);
-        if (rawEmails == null || rawEmails.isEmpty()) return Collections.emptyList();
-
-        // 1) 입력 이메일 정규화: trim → 빈값 제거 → 중복 제거(순서 유지)
-        List<String> emailsOrdered = rawEmails.stream()
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
+        requireUser(myId);
+        List<UUID> friendIds = requestRepo.findFriendIds(myId, FriendRequestStatus.ACCEPTED).stream()
                 .distinct() // 순서 유지하며 중복 제거
-                .collect(Collectors.toList());
-
-        if (emailsOrdered.isEmpty()) return Collections.emptyList();
-
-        // 2) 한 번에 조회
-        List<User> users = userRepo.findByEmailIn(emailsOrdered);
-
-        // 3) email(lowercase, trim) → User 매핑
-        Map<String, User> byEmail = users.stream()
-                .filter(Objects::nonNull)
-                .filter(u -> u.getEmail() != null && !u.getEmail().isBlank())
-                .collect(Collectors.toMap(
-                        u -> u.getEmail().trim().toLowerCase(Locale.ROOT), // 올바른 키
-                        Function.identity(),
-                        (a, b) -> a // 충돌 시 첫 번째 유지
-                ));
-
-        // 4) 원본 순서대로 DTO 생성 (유저가 없으면 name은 null로)
-        List<FriendBriefDto> result = new ArrayList<>(emailsOrdered.size());
-        for (String email : emailsOrdered) {
-            String key = email.trim().toLowerCase(Locale.ROOT);
-            User u = byEmail.get(key);
-
-            String id = (u != null && u.getId() != null) ? u.getId().toString() : null;
-
-            // 표기용 이름 필드 선택: username / displayName 등 환경에 맞게 조정
-            String name = null;
-            if (u != null) {
-                if (u.getUsername() != null && !u.getUsername().isBlank()) {
-                    name = u.getUsername().trim();
-                }
-                // 필요 시:
-                // else if (u.getDisplayName() != null && !u.getDisplayName().isBlank()) {
-                //     name = u.getDisplayName().trim();
-                // }
-            }
-
-            result.add(new FriendBriefDto(id, name, email));
+                .toList();
+        if (friendIds.isEmpty()) return Collections.emptyList();
+
+        Map<UUID, UserProfile> byId = profiles.getAll(friendIds);
+
+        // 요청 순서대로 DTO 생성
+        List<FriendBriefDto> result = new ArrayList<>(friendIds.size());
+        for (UUID fid : friendIds) {
+            UserProfile u = byId.get(fid);
+            if (u == null) continue;
+            String name = (u.username() != null && !u.username().isBlank()) ? u.username().trim() : null;
+            String email = u.email() != null ? u.email().trim() : null;
+            result.add(new FriendBriefDto(fid.toString(), name, email));
         }
         return result;
     }
@@ -315,15 +285,15 @@ public class FriendService {
     /** 나에게 온 PENDING 요청 개수: count 전용 쿼리 사용 */
     @Transactional(readOnly = true)
     public int incomingPendingCountByUserId(UUID myUserId) {
-        User me = requireUser(myUserId);
+        UserProfile me = requireUser(myUserId);
         // 표준 파생 쿼리 사용
-        return requestRepo.countByReceiver_EmailAndStatus(me.getEmail(), FriendRequestStatus.PENDING);
+        return requestRepo.countByReceiver_EmailAndStatus(me.email(), FriendRequestStatus.PENDING);
     }
 
     /** 내가 보낸 PENDING 요청 개수 */
     @Transactional(readOnly = true)
     public int outgoingPendingCountByUserId(UUID myUserId) {
-        User me = requireUser(myUserId);
-        return requestRepo.countByRequester_EmailAndStatus(me.getEmail(), FriendRequestStatus.PENDING);
+        UserProfile me = requireUser(myUserId);
+        return requestRepo.countByRequester_EmailAndStatus(me.email(), FriendRequestStatus.PENDING);
     }
 }
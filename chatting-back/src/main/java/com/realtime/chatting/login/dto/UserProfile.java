@@ -0,0 +1,17 @@
+package com.realtime.chatting.login.dto;
+
+import java.util.UUID;
+
+/**
+ * 표시용 사용자 프로필 (캐시 대상) — 비밀번호 해시 등 민감/무거운 컬럼은 싣지 않는다.
+ * @param avatarUrl User.profileImageUrl
+ */
+public record UserProfile(UUID id, String username, String email, String avatarUrl) {
+
+    /** 표시 이름: username → email → id */
+    public String displayName() {
+        if (username != null && !username.isBlank()) return username;
+        if (email != null && !email.isBlank()) return email;
+        return id.toString();
+    }
+}
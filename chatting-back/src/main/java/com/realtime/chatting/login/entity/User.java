@@ -2,8 +2,10 @@ package com.realtime.chatting.login.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import lombok.*;
+import com.realtime.chatting.login.service.UserProfileInvalidator;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +13,7 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(UserProfileInvalidator.class)
 @Getter
 @Setter
 @Builder
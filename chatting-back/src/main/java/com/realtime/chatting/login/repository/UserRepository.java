@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import com.realtime.chatting.login.dto.UserProfile;
 import com.realtime.chatting.login.entity.User;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,4 +24,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     // 이메일로 여러 명을 한 번에 찾기
     List<User> findByEmailIn(Collection<String> emails);
+
+    // 프로필 캐시 적재용 (필요한 컬럼만)
+    @Query("select new com.realtime.chatting.login.dto.UserProfile(u.id, u.username, u.email, u.profileImageUrl) from User u where u.id in :ids")
+    List<UserProfile> findProfilesByIdIn(@Param("ids") Collection<UUID> ids);
 }
\ No newline at end of file
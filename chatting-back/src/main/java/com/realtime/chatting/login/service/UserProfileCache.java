@@ -0,0 +1,71 @@
+package com.realtime.chatting.login.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.realtime.chatting.login.dto.UserProfile;
+import com.realtime.chatting.login.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 사용자 프로필 캐시 (id, username, email, avatar 만).
+ * - 메시지 팬아웃/전송/방 제목/친구 목록 등 핫패스의 이름 조회용
+ * - 여러 명은 getAll 로 없는 것만 한 번의 IN 쿼리로 적재
+ * - User 쓰기 시 UserProfileInvalidator(엔티티 리스너)가 무효화한다. 다른 노드의 변경은 expire-after-write 안에 반영.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepo;
+    private final Cache<UUID, UserProfile> profiles;
+
+    public UserProfileCache(UserRepository userRepo,
+                            MeterRegistry meterRegistry,
+                            @Value("${chat.user-profile.cache.max-size:100000}") long maxSize,
+                            @Value("${chat.user-profile.cache.expire-after-write-ms:600000}") long expireMs) {
+        this.userRepo = userRepo;
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, maxSize))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, expireMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "user.profile");
+    }
+
+    public Optional<UserProfile> get(UUID id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(getAll(List.of(id)).get(id));
+    }
+
+    /** 존재하는 사용자만 담긴 맵 (없는 id 는 빠진다) */
+    public Map<UUID, UserProfile> getAll(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) return Map.of();
+        List<UUID> keys = ids.stream().filter(Objects::nonNull).distinct().toList();
+        return profiles.getAll(keys, missing -> {
+            Map<UUID, UserProfile> loaded = new HashMap<>();
+            for (UserProfile p : userRepo.findProfilesByIdIn(new ArrayList<>(missing))) loaded.put(p.id(), p);
+            return loaded;
+        });
+    }
+
+    /** 트랜잭션 중이면 커밋 이후에 한 번 더 비운다 (커밋 전 재적재로 옛 값이 남지 않도록) */
+    public void invalidate(UUID id) {
+        if (id == null) return;
+        profiles.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    profiles.invalidate(id);
+                }
+            });
+        }
+    }
+}
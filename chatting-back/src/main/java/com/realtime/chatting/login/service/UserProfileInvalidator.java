@@ -0,0 +1,29 @@
+package com.realtime.chatting.login.service;
+
+import com.realtime.chatting.login.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * User 엔티티 쓰기 → 프로필 캐시 무효화.
+ * EntityManagerFactory 생성 시점에 캐시(→ UserRepository)가 아직 없으므로 지연 조회한다.
+ */
+@Component
+public class UserProfileInvalidator {
+
+    private final ObjectProvider<UserProfileCache> cache;
+
+    public UserProfileInvalidator(ObjectProvider<UserProfileCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void changed(User user) {
+        cache.ifAvailable(c -> c.invalidate(user.getId()));
+    }
+}
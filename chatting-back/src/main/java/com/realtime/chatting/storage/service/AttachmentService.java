@@ -3,6 +3,8 @@ package com.realtime.chatting.storage.service;
 import com.realtime.chatting.chat.dto.MessageDto;
 import com.realtime.chatting.chat.entity.ChatMessage;
 import com.realtime.chatting.chat.repository.ChatMessageRepository;
+import com.realtime.chatting.chat.repository.ChatRoomRepository;
+import com.realtime.chatting.chat.service.RecentMessageCache;
 import com.realtime.chatting.chat.dto.AttachmentDto;
 import com.realtime.chatting.storage.dto.StoredObject;
 import com.realtime.chatting.storage.entity.ChatAttachment;
@@ -12,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
@@ -27,7 +31,9 @@ public class AttachmentService {
 
     private final ChatMessageRepository messageRepo;
     private final ChatAttachmentRepository attachmentRepo;
+    private final ChatRoomRepository roomRepo;
     private final SimpMessagingTemplate messagingTemplate;
+    private final RecentMessageCache recentCache;
 
     @Transactional
     public ChatAttachment saveForMessage(String messageId, StoredObject so) {
@@ -45,6 +51,8 @@ public class AttachmentService {
                 .build();
 
         ChatAttachment saved = attachmentRepo.save(ca);
+        // 다른 노드의 최근 메시지 캐시도 이 방을 다시 적재하도록
+        roomRepo.bumpContentVersion(msg.getRoomId());
 
         broadcastUpdatedMessage(messageId);
 
@@ -63,6 +71,17 @@ public class AttachmentService {
     private void broadcastUpdatedMessage(String messageId) {
         var dto = findByMessageIdWithAttachments(messageId);
         if (dto == null) return;
+        // 최근 메시지 캐시는 커밋 이후에 교체 (롤백 시 캐시 오염 방지)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentCache.replace(dto);
+                }
+            });
+        } else {
+            recentCache.replace(dto);
+        }
         // STOMP 주제: /topic/rooms/{roomId}
         messagingTemplate.convertAndSend("/topic/rooms/" + dto.getRoomId(), dto);
     }
@@ -97,6 +116,7 @@ public class AttachmentService {
                 .username(m.getUsername())
                 .content(m.getContent())
                 .createdAt(m.getCreatedAt())
+                .seq(m.getSeq())
                 .attachments(attachmentDtos)
                 .build();
     }
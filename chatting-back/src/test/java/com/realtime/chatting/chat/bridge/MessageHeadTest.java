@@ -0,0 +1,179 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.realtime.chatting.chat.dto.AttachmentDto;
+import com.realtime.chatting.chat.dto.MessageDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * passthrough 모드의 스트리밍 파서가 객체 경로(MessageHead.of)와 같은 값을 뽑는지.
+ * 본문은 브리지가 실제로 받는 형태 — Jackson2JsonMessageConverter 로 직렬화한 MessageDto.
+ */
+class MessageHeadTest {
+
+    // 애플리케이션 ObjectMapper 와 같은 설정 (JavaTimeModule, 날짜는 ISO 문자열)
+    private static final ObjectMapper BOOT = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void matchesObjectPathForTypicalMessage() throws IOException {
+        MessageDto dto = message("점심 뭐 먹을까요?");
+        dto.setAttachments(List.of(attachment("a.png"), attachment("b.pdf")));
+
+        assertSameHead(dto, BOOT);
+    }
+
+    @Test
+    void handlesEscapedQuotesAndControlCharacters() throws IOException {
+        MessageDto dto = message("he said \"hi\" \\ path C:\\temp\n\tnext line {\"json\": [1, 2]}");
+        dto.setUsername("\"quoted\" name");
+
+        assertSameHead(dto, BOOT);
+    }
+
+    @Test
+    void handlesUnicodeEscapes() throws IOException {
+        MessageDto dto = message("café 😀 한글 end");
+        dto.setUsername("김민수 😀");
+        // 비 ASCII 문자를 모두 \\uXXXX(서로게이트 쌍 포함)로 내보내는 직렬화기
+        ObjectMapper escaping = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .enable(JsonWriteFeature.ESCAPE_NON_ASCII)
+                .build();
+
+        byte[] body = body(dto, escaping);
+        assertThat(new String(body)).contains("\\u").doesNotContain("😀");
+        assertThat(MessageHead.parse(escaping.getFactory(), body)).isEqualTo(MessageHead.of(dto));
+    }
+
+    @Test
+    void handlesNullFields() throws IOException {
+        MessageDto dto = MessageDto.builder()
+                .id(42L)
+                .roomId(UUID.randomUUID().toString())
+                .sender(UUID.randomUUID().toString())
+                .build(); // username, content, createdAt, seq, attachments 모두 null
+
+        byte[] body = body(dto, BOOT);
+        assertThat(new String(body)).contains("\"content\":null");
+        MessageHead head = MessageHead.parse(BOOT.getFactory(), body);
+
+        assertThat(head).isEqualTo(MessageHead.of(dto));
+        assertThat(head.username()).isNull();
+        assertThat(head.createdAt()).isNull();
+        assertThat(head.seq()).isNull();
+    }
+
+    @Test
+    void handlesEmptyAndNestedAttachments() throws IOException {
+        MessageDto empty = message("no files");
+        empty.setAttachments(List.of());
+        assertSameHead(empty, BOOT);
+
+        // 첨부 필드 값에 head 필드와 같은 이름/중괄호가 있어도 건너뛴다
+        MessageDto tricky = message("files");
+        AttachmentDto a = attachment("content.txt");
+        a.setContentType("text/plain; roomId=\"x\"}");
+        a.setOriginalName("{\"seq\": 999, \"sender\": \"evil\"}");
+        tricky.setAttachments(List.of(a, attachment("b.png")));
+        assertSameHead(tricky, BOOT);
+    }
+
+    @Test
+    void keyOrderDoesNotMatter() throws IOException {
+        MessageDto dto = message("reordered");
+        dto.setAttachments(List.of(attachment("a.png")));
+
+        // 직렬화 결과의 키 순서를 뒤집어 다시 쓴다 (attachments 가 head 필드보다 앞에 오도록)
+        ObjectNode original = (ObjectNode) BOOT.readTree(body(dto, BOOT));
+        List<String> names = new ArrayList<>();
+        original.fieldNames().forEachRemaining(names::add);
+        Collections.reverse(names);
+        ObjectNode reordered = BOOT.createObjectNode();
+        for (String n : names) reordered.set(n, original.get(n));
+        byte[] body = BOOT.writeValueAsBytes(reordered);
+
+        assertThat(names.get(0)).isEqualTo("attachments");
+        assertThat(MessageHead.parse(BOOT.getFactory(), body)).isEqualTo(MessageHead.of(dto));
+    }
+
+    @Test
+    void acceptsNumericTimestamps() throws IOException {
+        // WRITE_DATES_AS_TIMESTAMPS 를 끄지 않은 ObjectMapper: createdAt 이 epoch 초.나노 숫자
+        ObjectMapper numeric = JsonMapper.builder().findAndAddModules().build();
+        MessageDto dto = message("numeric time");
+        dto.setCreatedAt(Instant.parse("2026-03-04T05:06:07.123456789Z"));
+
+        byte[] body = body(dto, numeric);
+        assertThat(new String(body)).doesNotContain("2026-03-04");
+        assertThat(MessageHead.parse(numeric.getFactory(), body)).isEqualTo(MessageHead.of(dto));
+    }
+
+    @Test
+    void rejectsNonObjectPayload() {
+        assertThatThrownBy(() -> MessageHead.parse(BOOT.getFactory(), "[1,2]".getBytes()))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static void assertSameHead(MessageDto dto, ObjectMapper mapper) throws IOException {
+        MessageHead head = MessageHead.parse(mapper.getFactory(), body(dto, mapper));
+        MessageHead expected = MessageHead.of(dto);
+
+        assertThat(head.roomId()).isEqualTo(expected.roomId());
+        assertThat(head.sender()).isEqualTo(expected.sender());
+        assertThat(head.username()).isEqualTo(expected.username());
+        assertThat(head.content()).isEqualTo(expected.content());
+        assertThat(head.createdAt()).isEqualTo(expected.createdAt());
+        assertThat(head.seq()).isEqualTo(expected.seq());
+    }
+
+    private static byte[] body(MessageDto dto, ObjectMapper mapper) {
+        return new Jackson2JsonMessageConverter(mapper).toMessage(dto, new MessageProperties()).getBody();
+    }
+
+    private static MessageDto message(String content) {
+        return MessageDto.builder()
+                .id(1234567890123L)
+                .roomId(UUID.randomUUID().toString())
+                .messageId(UUID.randomUUID())
+                .sender(UUID.randomUUID().toString())
+                .username("user")
+                .content(content)
+                .createdAt(Instant.parse("2026-01-02T03:04:05.678Z"))
+                .seq(77L)
+                .build();
+    }
+
+    private static AttachmentDto attachment(String name) {
+        return AttachmentDto.builder()
+                .id(9L)
+                .storageKey("chat/" + name)
+                .url("https://files.test/chat/" + name)
+                .size(1234L)
+                .contentType("application/octet-stream")
+                .originalName(name)
+                .width(640)
+                .height(480)
+                .createdAt(Instant.parse("2026-01-02T03:04:06Z"))
+                .build();
+    }
+}
@@ -0,0 +1,156 @@
+package com.realtime.chatting.chat.bridge;
+
+import com.realtime.chatting.chat.dto.ChatNotify;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * (사용자, 방) 단위 알림 묶음: 즉시 전달/보류/마감 시 delta 프레임, 동시 submit 에서 건수 보존.
+ * window 를 길게 잡아 주기 flush 가 끼어들지 않게 하고, 보류분은 shutdown(전부 마감) 으로 꺼낸다.
+ */
+class NotifyDigesterTest {
+
+    private static final long LONG_WINDOW_MS = 60_000;
+
+    private ChatDelivery delivery;
+    // 수신자 → 받은 프레임들
+    private final Map<UUID, List<ChatNotify>> received = new ConcurrentHashMap<>();
+    private NotifyDigester digester;
+
+    @BeforeEach
+    void setUp() {
+        delivery = mock(ChatDelivery.class);
+        doAnswer(inv -> {
+            Collection<UUID> users = inv.getArgument(0);
+            ChatNotify n = inv.getArgument(1);
+            for (UUID u : users) received.computeIfAbsent(u, k -> Collections.synchronizedList(new ArrayList<>())).add(n);
+            return null;
+        }).when(delivery).deliverNotifyAll(anyCollection(), any(ChatNotify.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (digester != null) digester.shutdown();
+    }
+
+    @Test
+    void disabledDeliversEveryNotificationImmediately() {
+        digester = new NotifyDigester(delivery, new SimpleMeterRegistry(), false, LONG_WINDOW_MS);
+        UUID a = UUID.randomUUID();
+
+        digester.submit("room", List.of(a), notify("room", 1));
+        digester.submit("room", List.of(a), notify("room", 2));
+
+        assertThat(received.get(a)).extracting(ChatNotify::getSeq).containsExactly(1L, 2L);
+        assertThat(received.get(a)).extracting(ChatNotify::getDelta).containsOnlyNulls();
+    }
+
+    @Test
+    void firstIsImmediateAndTheRestCollapseIntoOneDigest() {
+        digester = new NotifyDigester(delivery, new SimpleMeterRegistry(), true, LONG_WINDOW_MS);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+
+        digester.submit("room", List.of(a, b), notify("room", 1));
+        digester.submit("room", List.of(a, b), notify("room", 2));
+        digester.submit("room", List.of(a), notify("room", 3)); // b 가 보낸 메시지 (b 제외)
+
+        // 첫 알림만 즉시, 두 사람이 한 프레임 공유
+        verify(delivery, times(1)).deliverNotifyAll(anyCollection(), any(ChatNotify.class));
+        assertThat(received.get(a)).extracting(ChatNotify::getSeq).containsExactly(1L);
+
+        digester.shutdown();
+
+        // 마감: 각자 마지막으로 보류된 알림 + 그동안의 건수
+        ChatNotify digestA = received.get(a).get(1);
+        ChatNotify digestB = received.get(b).get(1);
+        assertThat(digestA.getSeq()).isEqualTo(3L);
+        assertThat(digestA.getDelta()).isEqualTo(2);
+        assertThat(digestB.getSeq()).isEqualTo(2L);
+        assertThat(digestB.getDelta()).isEqualTo(1);
+        digester = null;
+    }
+
+    @Test
+    void roomsAreDigestedIndependently() {
+        digester = new NotifyDigester(delivery, new SimpleMeterRegistry(), true, LONG_WINDOW_MS);
+        UUID a = UUID.randomUUID();
+
+        digester.submit("r1", List.of(a), notify("r1", 1));
+        digester.submit("r2", List.of(a), notify("r2", 1));
+
+        // 방마다 첫 알림은 즉시
+        assertThat(received.get(a)).extracting(ChatNotify::getRoomId).containsExactly("r1", "r2");
+    }
+
+    @Test
+    void concurrentSubmitsKeepEveryCount() throws Exception {
+        digester = new NotifyDigester(delivery, new SimpleMeterRegistry(), true, LONG_WINDOW_MS);
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) users.add(UUID.randomUUID());
+        List<String> rooms = List.of("r1", "r2", "r3");
+        int threads = 8;
+        int perThread = 500;
+        AtomicLong seq = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        String room = rooms.get((i + offset) % rooms.size());
+                        digester.submit(room, users, notify(room, seq.incrementAndGet()));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        digester.shutdown();
+        digester = null;
+
+        // 즉시 프레임은 1건, 묶음 프레임은 delta 건으로 세면 (사용자, 방)마다 submit 수와 같다
+        Map<String, Long> submittedPerRoom = new HashMap<>();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) submittedPerRoom.merge(rooms.get((i + t) % rooms.size()), 1L, Long::sum);
+        }
+        for (UUID u : users) {
+            Map<String, Long> counted = new HashMap<>();
+            for (ChatNotify n : received.get(u)) {
+                counted.merge(n.getRoomId(), n.getDelta() == null ? 1L : n.getDelta(), Long::sum);
+            }
+            assertThat(counted).isEqualTo(submittedPerRoom);
+        }
+    }
+
+    private static ChatNotify notify(String roomId, long seq) {
+        return ChatNotify.builder()
+                .type("MESSAGE")
+                .roomId(roomId)
+                .sender("sender")
+                .username("sender")
+                .content("m" + seq)
+                .preview("m" + seq)
+                .createdAt(System.currentTimeMillis())
+                .seq(seq)
+                .build();
+    }
+}
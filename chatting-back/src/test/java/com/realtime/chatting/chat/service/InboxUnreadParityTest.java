@@ -0,0 +1,134 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.InboxItem;
+import com.realtime.chatting.chat.entity.ChatRoom;
+import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.login.entity.User;
+import com.realtime.chatting.support.ChatFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인박스(/api/inbox) 미읽음이 /api/unread 와 같은 값인지 — 두 미읽음 모델 모두.
+ * 인박스 줄의 last_seq 가 뒤처져 있고(브리지 비동기 갱신), 버퍼에 반영 전 증분이 있고, 대형 방이 섞인 상태.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class InboxUnreadParityTest {
+
+    @Autowired TestEntityManager em;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired ChatRoomMemberRepository memberRepo;
+
+    private ChatFixtures fx;
+    private User me;
+    private User peer;
+    private ChatRoom busy;
+    private ChatRoom large;
+    private ChatRoom read;
+
+    @BeforeEach
+    void setUp() {
+        fx = new ChatFixtures(em);
+        me = fx.user("me");
+        peer = fx.user("peer");
+
+        // 커서 3, 방 last_seq 5, 카운터 2 (+ 아래에서 버퍼 증분 1)
+        busy = fx.room(ChatRoom.Type.GROUP, "busy", 5);
+        fx.member(busy, me, 2, 3L);
+        fx.member(busy, peer, 0, 5L);
+
+        // 대형 방: 카운터를 올리지 않으므로 커서(10 - 7)
+        large = fx.room(ChatRoom.Type.GROUP, "large", 10);
+        fx.member(large, me, 0, 7L);
+        fx.member(large, peer, 0, 10L);
+
+        read = fx.room(ChatRoom.Type.GROUP, "read", 4);
+        fx.member(read, me, 0, 4L);
+        fx.member(read, peer, 0, 4L);
+
+        em.flush();
+        jdbc.update("UPDATE chat_rooms SET large_tier = TRUE WHERE id = ?", large.getId());
+        em.clear();
+    }
+
+    @Test
+    void counterModelInboxMatchesUnreadEndpoint() {
+        UnreadCounterService unread = unread("counter");
+        InboxService inbox = inbox(unread);
+        // 브리지가 아직 마지막 메시지를 반영하지 못한 상태 (인박스 last_seq 4 < 방 5)
+        inbox.onMessage(busy.getId(), 4L, Instant.now(), "peer", "hi");
+        // 브리지 트랜잭션 커밋 후에 버퍼에 쌓인다
+        TransactionTemplate bridgeTx = new TransactionTemplate(txManager);
+        bridgeTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        bridgeTx.executeWithoutResult(s ->
+                unread.increment(busy.getId(), peer.getId(), List.of(me.getId(), peer.getId())));
+
+        Map<String, Long> fromInbox = inboxUnread(inbox);
+        assertThat(fromInbox).isEqualTo(endpointUnread(unread, fromInbox));
+        assertThat(fromInbox).containsEntry(busy.getId(), 3L)
+                .containsEntry(large.getId(), 3L)
+                .containsEntry(read.getId(), 0L);
+    }
+
+    @Test
+    void cursorModelInboxMatchesUnreadEndpoint() {
+        UnreadCounterService unread = unread("cursor");
+        InboxService inbox = inbox(unread);
+        inbox.onMessage(busy.getId(), 4L, Instant.now(), "peer", "hi");
+
+        Map<String, Long> fromInbox = inboxUnread(inbox);
+        assertThat(fromInbox).isEqualTo(endpointUnread(unread, fromInbox));
+        assertThat(fromInbox).containsEntry(busy.getId(), 2L)
+                .containsEntry(large.getId(), 3L)
+                .containsEntry(read.getId(), 0L);
+    }
+
+    private UnreadCounterService unread(String model) {
+        return new UnreadCounterService(memberRepo, jdbc, txManager, new SimpleMeterRegistry(), true, model);
+    }
+
+    private InboxService inbox(UnreadCounterService unread) {
+        InboxService inbox = new InboxService(jdbc, unread);
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        for (ChatRoom r : List.of(busy, large, read)) {
+            inbox.joined(r.getId(), me.getId(), r.getType(), r.getTitle(), at);
+        }
+        return inbox;
+    }
+
+    private Map<String, Long> inboxUnread(InboxService inbox) {
+        Map<String, Long> out = new HashMap<>();
+        for (InboxItem item : inbox.page(me.getId(), null, 100).items()) out.put(item.roomId(), item.unread());
+        return out;
+    }
+
+    /** /api/unread 응답은 미읽음이 있는 방만 담으므로 없는 방은 0 */
+    private Map<String, Long> endpointUnread(UnreadCounterService unread, Map<String, Long> rooms) {
+        Map<String, Long> counts = new HashMap<>();
+        unread.unreadPerRoom(me.getId()).forEach(p ->
+                counts.put(String.valueOf(p.getRoomId()), p.getCount() == null ? 0L : p.getCount()));
+        Map<String, Long> out = new HashMap<>();
+        for (String roomId : rooms.keySet()) out.put(roomId, counts.getOrDefault(roomId, 0L));
+        return out;
+    }
+}
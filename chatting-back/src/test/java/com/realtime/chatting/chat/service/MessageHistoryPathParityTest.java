@@ -0,0 +1,118 @@
+package com.realtime.chatting.chat.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.realtime.chatting.chat.dto.MessageDto;
+import com.realtime.chatting.chat.dto.MessagePage;
+import com.realtime.chatting.chat.entity.ChatMessage;
+import com.realtime.chatting.common.id.IdGenerator;
+import com.realtime.chatting.support.ChatFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * history 읽기 경로 두 가지(jdbc: MessageHistoryReader, jpa: 엔티티/프로젝션 + toDtos)가
+ * 같은 행에 대해 같은 JSON 을 내는지 (첨부 있는/없는 메시지 섞어서).
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MessageService.class, MessageHistoryReader.class, SimpleMeterRegistry.class})
+class MessageHistoryPathParityTest {
+
+    private static final ObjectMapper JSON = JsonMapper.builder().findAndAddModules().build();
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Autowired MessageService messageService;
+    @Autowired TestEntityManager em;
+
+    @MockitoBean RoomMembershipCache membership;
+    @MockitoBean ChatMessageBatchWriter batchWriter;
+    @MockitoBean IdGenerator idGenerator;
+    @MockitoBean RecentMessageCache recentCache; // covers() = false → 항상 DB 경로
+
+    private final String roomId = UUID.randomUUID().toString();
+    private ChatFixtures fx;
+
+    @BeforeEach
+    void setUp() {
+        fx = new ChatFixtures(em);
+        message(1);
+        ChatMessage withOne = message(2);
+        message(3);
+        ChatMessage withTwo = message(4);
+        message(5);
+        attachment(withOne, "a.png", 640, 480);
+        attachment(withTwo, "b.pdf", null, null);
+        attachment(withTwo, "c.jpg", 100, 200);
+        message(6, "other-room");
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void latestPageIsIdenticalOnBothPaths() throws Exception {
+        String jdbc = json(() -> messageService.history(roomId, 50, null), "jdbc");
+        String jpa = json(() -> messageService.history(roomId, 50, null), "jpa");
+
+        assertThat(jdbc).isEqualTo(jpa);
+        List<MessageDto> items = withPath("jdbc", () -> messageService.history(roomId, 50, null));
+        assertThat(items).extracting(MessageDto::getSeq).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(items.get(3).getAttachments()).extracting("originalName").containsExactly("b.pdf", "c.jpg");
+    }
+
+    @Test
+    void cursorPagesAreIdenticalOnBothPaths() throws Exception {
+        MessagePage first = withPath("jdbc", () -> messageService.page(roomId, 2, null, null));
+        String older = first.olderCursor();
+        assertThat(older).isNotNull();
+
+        String jdbcOlder = json(() -> messageService.page(roomId, 2, older, "older"), "jdbc");
+        String jpaOlder = json(() -> messageService.page(roomId, 2, older, "older"), "jpa");
+        assertThat(jdbcOlder).isEqualTo(jpaOlder);
+
+        MessagePage middle = withPath("jdbc", () -> messageService.page(roomId, 2, older, "older"));
+        String pivot = middle.olderCursor();
+        String jdbcNewer = json(() -> messageService.page(roomId, 3, pivot, "newer"), "jdbc");
+        String jpaNewer = json(() -> messageService.page(roomId, 3, pivot, "newer"), "jpa");
+        assertThat(jdbcNewer).isEqualTo(jpaNewer);
+    }
+
+    private String json(Supplier<?> read, String path) throws Exception {
+        return JSON.writeValueAsString(withPath(path, read));
+    }
+
+    private <T> T withPath(String path, Supplier<T> read) {
+        ReflectionTestUtils.setField(messageService, "readPath", path);
+        em.clear();
+        return read.get();
+    }
+
+    private ChatMessage message(int n) {
+        return message(n, roomId);
+    }
+
+    private ChatMessage message(int n, String room) {
+        return fx.message(1_000L + n, room, n, T0.plusSeconds(n));
+    }
+
+    private void attachment(ChatMessage m, String name, Integer width, Integer height) {
+        fx.attachment(m, name, width, height, T0.plusSeconds(60));
+    }
+}
@@ -0,0 +1,102 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.dto.RoomDto;
+import com.realtime.chatting.chat.entity.ChatRoom;
+import com.realtime.chatting.common.id.IdGenerator;
+import com.realtime.chatting.friend.service.FriendService;
+import com.realtime.chatting.login.entity.User;
+import com.realtime.chatting.login.service.UserProfileCache;
+import com.realtime.chatting.support.ChatFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 방 목록/상세 조회가 방 수와 무관하게 고정된 쿼리 수로 끝나는지 (N+1 회귀 방지).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RoomService.class)
+class RoomServiceQueryCountTest {
+
+    @Autowired RoomService roomService;
+    @Autowired TestEntityManager em;
+    @Autowired EntityManagerFactory emf;
+
+    @MockitoBean FriendService friendService;
+    @MockitoBean IdGenerator idGenerator;
+    @MockitoBean ChangeLogService changeLog;
+    @MockitoBean InboxService inbox;
+    @MockitoBean RoomMembershipCache membership;
+    @MockitoBean UserProfileCache profiles;
+
+    private ChatFixtures fx;
+    private Statistics stats;
+    private User me;
+
+    @BeforeEach
+    void setUp() {
+        fx = new ChatFixtures(em);
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        me = fx.user("me");
+    }
+
+    @Test
+    void myRoomsUsesFixedStatementCountRegardlessOfRoomCount() {
+        fx.dm(me, fx.user("peer-1"));
+        fx.group("g1", me, fx.user("a"), fx.user("b"));
+        flushAndClear();
+
+        List<RoomDto> few = measure(() -> roomService.myRooms(me.getId().toString()));
+        long fewStatements = stats.getPrepareStatementCount();
+        assertThat(few).hasSize(2);
+
+        for (int i = 2; i <= 10; i++) fx.dm(me, fx.user("peer-" + i));
+        fx.group("g2", me, fx.user("c"));
+        flushAndClear();
+
+        List<RoomDto> many = measure(() -> roomService.myRooms(me.getId().toString()));
+        assertThat(many).hasSize(12);
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(fewStatements).isEqualTo(2);
+
+        RoomDto firstDm = many.get(0);
+        assertThat(firstDm.getTitle()).isEqualTo("peer-1");
+        assertThat(firstDm.getMembers()).hasSize(2);
+        assertThat(many.get(1).getTitle()).isEqualTo("g1");
+        assertThat(many.get(1).getMembers()).hasSize(3);
+    }
+
+    @Test
+    void roomDetailUsesFixedStatementCount() {
+        ChatRoom room = fx.group("g", me, fx.user("a"), fx.user("b"), fx.user("c"));
+        flushAndClear();
+
+        RoomDto dto = measure(() -> roomService.getRoomForMember(me.getId(), room.getId()));
+        assertThat(dto.getMembers()).hasSize(4).contains("me@test");
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private <T> T measure(java.util.function.Supplier<T> call) {
+        stats.clear();
+        return call.get();
+    }
+
+    private void flushAndClear() {
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,198 @@
+package com.realtime.chatting.chat.service;
+
+import com.realtime.chatting.chat.entity.ChatRoom;
+import com.realtime.chatting.chat.repository.ChatRoomMemberRepository;
+import com.realtime.chatting.common.UuidBinaryConverter;
+import com.realtime.chatting.login.entity.User;
+import com.realtime.chatting.support.ChatFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * counter 모델 버퍼: 증분/주기 flush/조회 시 사용자 단위 drain 이 동시에 돌아도 증분이 사라지거나 두 번 반영되지 않는지,
+ * 읽음 처리가 대기 증분을 버리는지, 롤백된 트랜잭션의 증분이 쌓이지 않는지.
+ * flush 는 자체 트랜잭션으로 커밋하므로 테스트 트랜잭션 없이 돌리고 행은 직접 지운다.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UnreadCounterServiceTest {
+
+    @Autowired TestEntityManager em;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired ChatRoomMemberRepository memberRepo;
+
+    private TransactionTemplate tx;
+    private UnreadCounterService unread;
+    private User sender;
+    private final List<User> recipients = new ArrayList<>();
+    private final List<ChatRoom> rooms = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(txManager);
+        unread = new UnreadCounterService(memberRepo, jdbc, txManager, new SimpleMeterRegistry(), true, "counter");
+        tx.executeWithoutResult(s -> {
+            ChatFixtures fx = new ChatFixtures(em);
+            sender = fx.user("sender");
+            for (int i = 0; i < 8; i++) recipients.add(fx.user("r" + i));
+            for (int i = 0; i < 3; i++) {
+                ChatRoom room = fx.room(ChatRoom.Type.GROUP, "g" + i, 9);
+                fx.member(room, sender);
+                for (User u : recipients) fx.member(room, u);
+                rooms.add(room);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.update("DELETE FROM chat_room_members");
+        jdbc.update("DELETE FROM chat_rooms");
+        jdbc.update("DELETE FROM user");
+    }
+
+    @Test
+    void concurrentIncrementsFlushesAndReadsLoseNothing() throws Exception {
+        int writers = 4;
+        int perWriter = 300;
+        List<UUID> participants = participants();
+        AtomicBoolean done = new AtomicBoolean();
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < writers; t++) {
+                int offset = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        unread.increment(rooms.get((i + offset) % rooms.size()).getId(), sender.getId(), participants);
+                    }
+                    return null;
+                }));
+            }
+            // 주기 flush 와 조회(사용자 단위 drain)가 증분과 겹치도록
+            Future<?> flusher = pool.submit(() -> {
+                start.await();
+                while (!done.get()) unread.flush();
+                return null;
+            });
+            Future<?> reader = pool.submit(() -> {
+                start.await();
+                int i = 0;
+                while (!done.get()) {
+                    UUID userId = recipients.get(i++ % recipients.size()).getId();
+                    unread.readThrough(userId, () -> null);
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+            done.set(true);
+            flusher.get(60, TimeUnit.SECONDS);
+            reader.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        unread.flush();
+
+        int[] expected = new int[rooms.size()];
+        for (int t = 0; t < writers; t++) {
+            for (int i = 0; i < perWriter; i++) expected[(i + t) % rooms.size()]++;
+        }
+        for (int r = 0; r < rooms.size(); r++) {
+            for (User u : recipients) assertThat(unreadCount(rooms.get(r), u)).isEqualTo(expected[r]);
+            assertThat(unreadCount(rooms.get(r), sender)).isZero();
+        }
+    }
+
+    @Test
+    void readThroughAppliesPendingIncrementsBeforeQuery() {
+        ChatRoom room = rooms.get(0);
+        User me = recipients.get(0);
+        for (int i = 0; i < 3; i++) unread.increment(room.getId(), sender.getId(), participants());
+
+        // 주기 flush 전이라도 해당 사용자 증분은 조회 직전에 반영된다
+        assertThat(unreadCount(room, me)).isZero();
+        assertThat(unread.readThrough(me.getId(), () -> unreadCount(room, me))).isEqualTo(3);
+        assertThat(unread.unreadPerRoom(me.getId()))
+                .anySatisfy(p -> {
+                    assertThat(String.valueOf(p.getRoomId())).isEqualTo(room.getId());
+                    assertThat(p.getCount()).isEqualTo(3L);
+                });
+        // 다른 사용자 증분은 아직 버퍼에
+        assertThat(unreadCount(room, recipients.get(1))).isZero();
+    }
+
+    @Test
+    void resetDiscardsPendingAndMovesCursorToRoomSeq() {
+        ChatRoom room = rooms.get(0);
+        User me = recipients.get(0);
+        unread.increment(room.getId(), sender.getId(), participants());
+        unread.flush();
+        unread.increment(room.getId(), sender.getId(), participants());
+
+        tx.executeWithoutResult(s -> unread.reset(room.getId(), me.getId()));
+        unread.flush();
+
+        assertThat(unreadCount(room, me)).isZero();
+        assertThat(lastReadSeq(room, me)).isEqualTo(9L);
+        assertThat(unreadCount(room, recipients.get(1))).isEqualTo(2);
+    }
+
+    @Test
+    void rolledBackIncrementIsNotBuffered() {
+        ChatRoom room = rooms.get(0);
+        User me = recipients.get(0);
+
+        tx.executeWithoutResult(s -> {
+            unread.increment(room.getId(), sender.getId(), participants());
+            s.setRollbackOnly();
+        });
+        tx.executeWithoutResult(s -> unread.increment(room.getId(), sender.getId(), participants()));
+        unread.flush();
+
+        assertThat(unreadCount(room, me)).isEqualTo(1);
+    }
+
+    private List<UUID> participants() {
+        List<UUID> ids = new ArrayList<>();
+        ids.add(sender.getId());
+        for (User u : recipients) ids.add(u.getId());
+        return ids;
+    }
+
+    private int unreadCount(ChatRoom room, User user) {
+        return jdbc.queryForObject("SELECT unread_count FROM chat_room_members WHERE room_id = ? AND user_id = ?",
+                Integer.class, room.getId(), UuidBinaryConverter.toBytes(user.getId()));
+    }
+
+    private Long lastReadSeq(ChatRoom room, User user) {
+        return jdbc.queryForObject("SELECT last_read_seq FROM chat_room_members WHERE room_id = ? AND user_id = ?",
+                Long.class, room.getId(), UuidBinaryConverter.toBytes(user.getId()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.realtime.chatting.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Snowflake 발급기: 동시 발급 시 유일성/스레드별 단조 증가, ms 당 sequence 소진, 비트 배치.
+ */
+class SnowflakeIdGeneratorTest {
+
+    private static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasingPerThread() throws Exception {
+        SnowflakeIdGenerator gen = new SnowflakeIdGenerator(3, 5, 7);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) ids[i] = gen.nextId();
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> all = new HashSet<>(threads * perThread);
+            for (Future<long[]> f : futures) {
+                long[] ids = f.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    all.add(ids[i]);
+                }
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void exhaustedSequenceMovesToNextMillisecond() {
+        // ms 당 2개만 발급 가능
+        SnowflakeIdGenerator gen = new SnowflakeIdGenerator(SnowflakeIdGenerator.DEFAULT_EPOCH_MS, 0, 0, 1);
+        long prev = gen.nextId();
+        for (int i = 0; i < 2_000; i++) {
+            long id = gen.nextId();
+            assertThat(id).isGreaterThan(prev);
+            assertThat(gen.timestampOf(id)).isGreaterThanOrEqualTo(gen.timestampOf(prev));
+            prev = id;
+        }
+        // 다음 ms 를 기다려 넘어가므로 시계를 앞질러 발급하지 않는다 (약 1초 소요)
+        assertThat(gen.timestampOf(prev)).isLessThanOrEqualTo(System.currentTimeMillis());
+    }
+
+    @Test
+    void layoutCarriesNodeAndTimestamp() {
+        long before = System.currentTimeMillis();
+        SnowflakeIdGenerator gen = new SnowflakeIdGenerator(17, 5, 7);
+        long id = gen.nextId();
+        long after = System.currentTimeMillis();
+
+        assertThat((id >>> 7) & 0x1f).isEqualTo(17);
+        assertThat(gen.timestampOf(id)).isBetween(before, after);
+        // 기본 배치는 JS Number 로 정밀도 손실 없이 다룰 수 있다
+        assertThat(id).isPositive().isLessThanOrEqualTo(MAX_SAFE_INTEGER);
+    }
+
+    @Test
+    void floorIdAtIsBelowLaterIdsAndAboveEarlierOnes() throws InterruptedException {
+        SnowflakeIdGenerator gen = new SnowflakeIdGenerator(31, 5, 7);
+        long early = gen.nextId();
+        Thread.sleep(5);
+        long cut = System.currentTimeMillis();
+        Thread.sleep(5);
+        long late = gen.nextId();
+
+        long floor = gen.floorIdAt(cut);
+        assertThat(early).isLessThan(floor);
+        assertThat(late).isGreaterThanOrEqualTo(floor);
+        assertThat(gen.floorIdAt(0)).isZero();
+    }
+
+    @Test
+    void compatUuidRoundTrips() {
+        SnowflakeIdGenerator gen = new SnowflakeIdGenerator(1, 5, 7);
+        long id = gen.nextId();
+        UUID compat = IdGenerator.toCompatUuid(id);
+
+        assertThat(IdGenerator.fromCompatUuid(compat)).isEqualTo(id);
+        assertThat(IdGenerator.fromCompatUuid(UUID.randomUUID())).isNull();
+        // 고정 폭 16진수라 문자열 순서 = ID 순서
+        long next = gen.nextId();
+        assertThat(IdGenerator.toCompatUuid(next).toString()).isGreaterThan(compat.toString());
+    }
+
+    @Test
+    void rejectsInvalidLayout() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(32, 5, 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1, 5, 7)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(0, 5, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(0, 11, 12)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
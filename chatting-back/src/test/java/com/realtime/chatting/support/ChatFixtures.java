@@ -0,0 +1,104 @@
+package com.realtime.chatting.support;
+
+import com.realtime.chatting.chat.entity.ChatMessage;
+import com.realtime.chatting.chat.entity.ChatRoom;
+import com.realtime.chatting.chat.entity.ChatRoomMember;
+import com.realtime.chatting.common.id.IdGenerator;
+import com.realtime.chatting.login.entity.User;
+import com.realtime.chatting.storage.entity.ChatAttachment;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * @DataJpaTest 공용 픽스처 (사용자/방/멤버/메시지/첨부). 호출자 트랜잭션 안에서 persist 만 한다.
+ */
+public final class ChatFixtures {
+
+    private final TestEntityManager em;
+
+    public ChatFixtures(TestEntityManager em) {
+        this.em = em;
+    }
+
+    /** email 은 name@test, username/nickname 은 name */
+    public User user(String name) {
+        return em.persist(User.builder()
+                .id(UUID.randomUUID())
+                .email(name + "@test")
+                .username(name)
+                .nickname(name)
+                .password("x")
+                .build());
+    }
+
+    public ChatRoom room(ChatRoom.Type type, String title) {
+        return room(type, title, 0L);
+    }
+
+    public ChatRoom room(ChatRoom.Type type, String title, long lastSeq) {
+        return em.persist(ChatRoom.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type)
+                .title(title)
+                .createdAt(Instant.now())
+                .lastSeq(lastSeq)
+                .build());
+    }
+
+    public ChatRoom dm(User a, User b) {
+        ChatRoom room = room(ChatRoom.Type.DM, null);
+        member(room, a);
+        member(room, b);
+        return room;
+    }
+
+    public ChatRoom group(String title, User... users) {
+        ChatRoom room = room(ChatRoom.Type.GROUP, title);
+        for (User u : users) member(room, u);
+        return room;
+    }
+
+    public ChatRoomMember member(ChatRoom room, User user) {
+        return em.persist(ChatRoomMember.builder().room(room).user(user).joinedAt(Instant.now()).build());
+    }
+
+    public ChatRoomMember member(ChatRoom room, User user, int unreadCount, Long lastReadSeq) {
+        return em.persist(ChatRoomMember.builder()
+                .room(room)
+                .user(user)
+                .unreadCount(unreadCount)
+                .lastReadSeq(lastReadSeq)
+                .joinedAt(Instant.now())
+                .build());
+    }
+
+    /** messageId 는 id 의 호환 UUID, 보낸 사람은 임의 UUID */
+    public ChatMessage message(long id, String roomId, long seq, Instant createdAt) {
+        return em.persist(ChatMessage.builder()
+                .id(id)
+                .messageId(IdGenerator.toCompatUuid(id).toString())
+                .roomId(roomId)
+                .sender(UUID.randomUUID().toString())
+                .username("user-" + seq)
+                .content("message " + seq)
+                .createdAt(createdAt)
+                .seq(seq)
+                .build());
+    }
+
+    public ChatAttachment attachment(ChatMessage m, String name, Integer width, Integer height, Instant createdAt) {
+        return em.persist(ChatAttachment.builder()
+                .message(m)
+                .storageKey("chat/" + name)
+                .publicUrl("https://files.test/chat/" + name)
+                .originalName(name)
+                .contentType("application/octet-stream")
+                .size(1234L)
+                .width(width)
+                .height(height)
+                .createdAt(createdAt)
+                .build());
+    }
+}
@@ -7,6 +7,7 @@ export type RoomDto = {
     createdAt?: string | null
     members?: string[] | null
     title?: string | null
+    largeTier?: boolean | null
 }
 
 export type AttachmentDto = {
@@ -143,12 +143,13 @@ export function NotificationsProvider({ children }: { children: React.ReactNode
             return {}
         }
     })
-    const [rooms, setRooms] = useState<Array<{ id: string }>>([])
+    const [rooms, setRooms] = useState<Array<{ id: string; largeTier: boolean }>>([])
 
     const activeRoomRef = useRef<string | undefined>(undefined)
     const atBottomRef = useRef<boolean>(true)
 
     const previewRoomSubsRef = useRef<Map<string, () => void>>(new Map())
+    const roomNotifySubsRef = useRef<Map<string, () => void>>(new Map())
     const primedRef = useRef(false)
 
     // 라우트 변화 → 활성 방 추출
@@ -233,8 +234,8 @@ export function NotificationsProvider({ children }: { children: React.ReactNode
             try {
                 const res = await http.get(ROOMS_ENDPOINT)
                 const arr = Array.isArray(res.data) ? res.data : []
-                const list: Array<{ id: string }> = []
-                for (const r of arr) if (r?.id) list.push({ id: String(r.id) })
+                const list: Array<{ id: string; largeTier: boolean }> = []
+                for (const r of arr) if (r?.id) list.push({ id: String(r.id), largeTier: r.largeTier === true })
                 setRooms(list)
             } catch (e) {
                 console.warn('[useNotifications] /rooms fetch failed', e)
@@ -540,6 +541,36 @@ export function NotificationsProvider({ children }: { children: React.ReactNode
         }
     }, [isAuthed, rooms])
 
+    /** ✅ 대형 방: 서버가 사용자별 chat-notify 대신 방 단위 알림 토픽으로 한 번만 보낸다 (largeTier 인 방만 구독) */
+    useEffect(() => {
+        if (!isAuthed || rooms.length === 0) return
+
+        const subs = roomNotifySubsRef.current
+
+        for (const [rid, cleanup] of subs) {
+            if (!rooms.some((r) => r.id === rid && r.largeTier)) {
+                cleanup()
+                subs.delete(rid)
+            }
+        }
+
+        for (const r of rooms) {
+            if (!r.largeTier || subs.has(r.id)) continue
+            try {
+                // 내가 보낸 메시지/보고 있는 방은 pushNotif 가 거른다
+                const sub = ws.subscribe(`/topic/rooms/${r.id}/notify`, (payload: any) => pushNotif(payload))
+                subs.set(r.id, toCleanup(sub))
+            } catch {
+                /* ignore */
+            }
+        }
+
+        return () => {
+            for (const [, cleanup] of subs) cleanup()
+            subs.clear()
+        }
+    }, [isAuthed, rooms, pushNotif])
+
     // ======= 총 unread 변화 → 배지 동기화 =======
     const prevTotalRef = useRef<number>(getTotalUnread())
     useEffect(() => {
@@ -382,7 +382,22 @@ export default function ChatRoomPage(): JSX.Element {
             })
         })
 
+        // 보고 있는 중 표시(서버는 이 구독이 있는 동안 알림/미읽음을 건너뜀, 받는 메시지 없음)
+        // 탭이 숨겨지거나 창이 포커스를 잃으면 해제해서 백그라운드 탭도 알림을 받게 한다
+        let unview: (() => void) | null = null
+        const syncViewing = () => {
+            const viewing = document.visibilityState === 'visible' && document.hasFocus()
+            if (viewing && !unview) {
+                unview = ws.subscribe(`/topic/rooms/${roomId}/viewing`, () => {})
+            } else if (!viewing && unview) {
+                unview()
+                unview = null
+            }
+        }
+        syncViewing()
+
         const onVisible = () => {
+            syncViewing()
             if (document.visibilityState === 'visible') {
                 ws.ensureConnected()
                 if (nearBottomRef.current) {
@@ -394,13 +409,19 @@ export default function ChatRoomPage(): JSX.Element {
         const onOnline = () => { ws.ensureConnected() }
 
         document.addEventListener('visibilitychange', onVisible, { passive: true } as any)
+        window.addEventListener('focus', syncViewing, { passive: true } as any)
+        window.addEventListener('blur', syncViewing, { passive: true } as any)
         window.addEventListener('online', onOnline, { passive: true } as any)
         window.addEventListener('pageshow', onOnline, { passive: true } as any)
 
         return () => {
             unsub()
+            unview?.()
+            unview = null
             ws.offConnect(markConnected); ws.offDisconnect(markDisconnected)
             document.removeEventListener('visibilitychange', onVisible as any)
+            window.removeEventListener('focus', syncViewing as any)
+            window.removeEventListener('blur', syncViewing as any)
             window.removeEventListener('online', onOnline as any)
             window.removeEventListener('pageshow', onOnline as any)
         }